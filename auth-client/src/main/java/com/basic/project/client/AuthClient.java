@@ -0,0 +1,388 @@
+package com.basic.project.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Проверка access токенов auth-service внутри сервиса-потребителя вместо вызова /api/auth/validate на каждый запрос.
+ * Порядок: фильтр отзыва -> кэш вердиктов по SHA-256 токена -> локальная проверка HMAC по ключам из /api/auth/keys
+ * -> удаленный /validate, если ключей еще нет или kid неизвестен (после ротации ключи подтягиваются асинхронно).
+ * Ошибка удаленной проверки отклоняет токен.
+ * Клиент принимает токены только своего tenant'а (builder tenant, по умолчанию - tenant по умолчанию сервиса):
+ * ключи загружаются для него, а claim tid проверяется и локально, и перед удаленной проверкой
+ * (сервис принимает на /validate токен любого tenant'а).
+ * <p>
+ * Важно: ключи HMAC симметричные, тот же секрет и подписывает токены. Сервис, получивший ключи
+ * (через credentials или staticKeys), может выпустить валидный access токен для любого пользователя,
+ * то есть каждый потребитель становится эмитентом токенов. Учетную запись auth.keys на стороне
+ * auth-service выдавайте только доверенным сервисам; остальным - только remote /validate без ключей.
+ * <pre>
+ * AuthClient client = AuthClient.builder(URI.create("http://auth-service:8081"))
+ *         .tenant("shop")
+ *         .credentials(user, password)
+ *         .meterRegistry(registry)
+ *         .build();
+ * boolean valid = client.validate(request.getHeader("Authorization"));
+ * </pre>
+ */
+public final class AuthClient implements AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(AuthClient.class.getName());
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final String tenant;
+    private final KeyFetcher keyFetcher;
+    private final RemoteValidator remote;
+    private final VerdictCache cache;
+    private final RevocationSource revocationSource;
+    private final double revocationFalsePositiveRate;
+    private final long negativeCacheTtl;
+    private final long remoteCacheTtl;
+    private final long keyRefreshMinInterval;
+    private final ClientMetrics metrics;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong lastKeyRefreshRequest = new AtomicLong();
+
+    private volatile KeySet keys;
+    private volatile RevocationFilter revocations;
+
+    private AuthClient(Builder builder) {
+        HttpClient httpClient = builder.httpClient != null ? builder.httpClient
+                : HttpClient.newBuilder().connectTimeout(builder.remoteTimeout).build();
+        this.tenant = builder.tenant;
+        this.keyFetcher = builder.username != null
+                ? new KeyFetcher(httpClient, builder.baseUrl, tenant, builder.username, builder.password, builder.remoteTimeout)
+                : null;
+        this.remote = new RemoteValidator(httpClient, builder.baseUrl, builder.remoteTimeout);
+        this.cache = builder.cacheSize > 0 ? new VerdictCache(builder.cacheSize) : null;
+        this.revocationSource = builder.revocationSource;
+        this.revocationFalsePositiveRate = builder.revocationFalsePositiveRate;
+        this.negativeCacheTtl = builder.negativeCacheTtl.toSeconds();
+        this.remoteCacheTtl = builder.remoteCacheTtl.toSeconds();
+        this.keyRefreshMinInterval = builder.keyRefreshMinInterval.toMillis();
+        this.keys = builder.staticSecrets != null
+                ? KeySet.of(tenant, builder.staticActiveKid, builder.staticSecrets, null)
+                : null;
+
+        MeterRegistry registry = builder.meterRegistry;
+        this.metrics = new ClientMetrics(registry);
+        Gauge.builder("auth.client.keys", this, client -> client.keys != null ? client.keys.size() : 0)
+                .description("Verification keys currently loaded").register(registry);
+        Gauge.builder("auth.client.revocations", this,
+                        client -> client.revocations != null ? client.revocations.entries() : 0)
+                .description("Revoked token digests in the current filter").register(registry);
+        if (cache != null) {
+            Gauge.builder("auth.client.cache.entries", cache, c -> c.size(nowSeconds()))
+                    .description("Live verdict cache entries").register(registry);
+        }
+
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "auth-client-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+        if (keyFetcher != null) {
+            long interval = builder.keyRefreshInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::refreshKeys, 0, interval, TimeUnit.MILLISECONDS);
+        }
+        if (revocationSource != null) {
+            long interval = builder.revocationSyncInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::syncRevocations, 0, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static Builder builder(URI baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    /**
+     * Дайджест токена (SHA-256, base64url) - идентификатор для {@link RevocationSource}
+     */
+    public static String tokenDigest(String token) {
+        return TokenDigest.encode(token);
+    }
+
+    /**
+     * Проверка access токена; принимает заголовок Authorization ("Bearer ...") или сам токен
+     */
+    public boolean validate(String authorization) {
+        if (authorization == null) {
+            return metrics.record(ClientMetrics.Source.LOCAL, false);
+        }
+        int from = authorization.startsWith(BEARER_PREFIX) ? BEARER_PREFIX.length() : 0;
+        if (authorization.length() == from || authorization.length() - from > LocalTokenVerifier.MAX_TOKEN_LENGTH) {
+            return metrics.record(ClientMetrics.Source.LOCAL, false);
+        }
+        TokenDigest digest = TokenDigest.compute(authorization, from);
+        if (digest == null) {
+            return metrics.record(ClientMetrics.Source.LOCAL, false);
+        }
+
+        RevocationFilter revoked = revocations;
+        if (revoked != null && revoked.mightContain(digest)) {
+            return metrics.record(ClientMetrics.Source.REVOCATION, false);
+        }
+        long now = nowSeconds();
+        if (cache != null) {
+            int cached = cache.get(digest, now);
+            if (cached != VerdictCache.MISS) {
+                return metrics.record(ClientMetrics.Source.CACHE, cached == VerdictCache.VALID);
+            }
+        }
+
+        KeySet current = keys;
+        if (current != null) {
+            long expiresAt = LocalTokenVerifier.verify(authorization, from, current, now);
+            if (expiresAt != LocalTokenVerifier.UNKNOWN_KEY) {
+                boolean valid = expiresAt != LocalTokenVerifier.INVALID;
+                cache(digest, valid, valid ? expiresAt : now + negativeCacheTtl);
+                return metrics.record(ClientMetrics.Source.LOCAL, valid);
+            }
+            requestKeyRefresh();
+        }
+        // Чужой tenant отклоняется без запроса: /validate проверяет подпись и tid относительно ключа,
+        // но не то, что токен выпущен для tenant'а клиента
+        if (!LocalTokenVerifier.hasTenant(authorization, from, tenant)) {
+            cache(digest, false, now + negativeCacheTtl);
+            return metrics.record(ClientMetrics.Source.LOCAL, false);
+        }
+        return validateRemotely(authorization.substring(from), digest, now);
+    }
+
+    /**
+     * Синхронная загрузка ключей с сервиса; {@code false}, если загрузить не удалось (старые ключи остаются)
+     */
+    public boolean refreshKeys() {
+        if (keyFetcher == null) {
+            return false;
+        }
+        try {
+            KeySet previous = keys;
+            KeySet next = keyFetcher.fetch(previous);
+            keys = next;
+            if (previous == null || !previous.activeKid().equals(next.activeKid())) {
+                log.log(System.Logger.Level.INFO, "Auth keys loaded, active kid {0}, {1} verifying keys",
+                        next.activeKid(), next.size());
+            }
+            metrics.keySync(true);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.log(System.Logger.Level.WARNING, "Auth key refresh failed: {0}", e.toString());
+        }
+        metrics.keySync(false);
+        return false;
+    }
+
+    /**
+     * Синхронная загрузка списка отзыва; {@code false}, если источник не задан или недоступен (старый фильтр остается)
+     */
+    public boolean syncRevocations() {
+        if (revocationSource == null) {
+            return false;
+        }
+        try {
+            Collection<String> digests = revocationSource.revokedTokenDigests();
+            revocations = RevocationFilter.build(digests, revocationFalsePositiveRate);
+            metrics.revocationSync(true);
+            return true;
+        } catch (Exception e) {
+            log.log(System.Logger.Level.WARNING, "Revocation sync failed: {0}", e.toString());
+            metrics.revocationSync(false);
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private boolean validateRemotely(String token, TokenDigest digest, long now) {
+        boolean valid;
+        try {
+            valid = remote.validate(token);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            metrics.remoteFailure();
+            return metrics.record(ClientMetrics.Source.REMOTE, false);
+        } catch (Exception e) {
+            log.log(System.Logger.Level.DEBUG, "Remote validate failed: {0}", e.toString());
+            metrics.remoteFailure();
+            return metrics.record(ClientMetrics.Source.REMOTE, false);
+        }
+        cache(digest, valid, now + (valid ? remoteCacheTtl : negativeCacheTtl));
+        return metrics.record(ClientMetrics.Source.REMOTE, valid);
+    }
+
+    private void cache(TokenDigest digest, boolean valid, long expiresAt) {
+        if (cache != null) {
+            cache.put(digest, valid, expiresAt);
+        }
+    }
+
+    /**
+     * Неизвестный kid - скорее всего ротация ключей: внеочередная загрузка не чаще keyRefreshMinInterval
+     */
+    private void requestKeyRefresh() {
+        if (keyFetcher == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long last = lastKeyRefreshRequest.get();
+        if (now - last >= keyRefreshMinInterval && lastKeyRefreshRequest.compareAndSet(last, now)) {
+            scheduler.execute(this::refreshKeys);
+        }
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    public static final class Builder {
+
+        private final URI baseUrl;
+        private String tenant;
+        private String username;
+        private String password;
+        private String staticActiveKid;
+        private Map<String, byte[]> staticSecrets;
+        private int cacheSize = 16384;
+        private Duration negativeCacheTtl = Duration.ofSeconds(5);
+        private Duration remoteCacheTtl = Duration.ofSeconds(10);
+        private Duration keyRefreshInterval = Duration.ofMinutes(5);
+        private Duration keyRefreshMinInterval = Duration.ofSeconds(10);
+        private Duration remoteTimeout = Duration.ofSeconds(2);
+        private RevocationSource revocationSource;
+        private Duration revocationSyncInterval = Duration.ofSeconds(30);
+        private double revocationFalsePositiveRate = 1e-6;
+        private MeterRegistry meterRegistry = Metrics.globalRegistry;
+        private HttpClient httpClient;
+
+        private Builder(URI baseUrl) {
+            this.baseUrl = Objects.requireNonNull(baseUrl, "baseUrl");
+        }
+
+        /**
+         * Tenant сервиса-потребителя (заголовок X-Tenant-Id при выпуске токенов); токены других tenant'ов
+         * отклоняются. Без вызова - tenant по умолчанию (токены без claim tid)
+         */
+        public Builder tenant(String tenant) {
+            this.tenant = Objects.requireNonNull(tenant, "tenant");
+            return this;
+        }
+
+        /**
+         * Учетная запись httpBasic для /api/auth/keys (auth.keys на стороне сервиса, не учетная запись actuator);
+         * без нее (и без staticKeys) все проверки идут в /validate
+         */
+        public Builder credentials(String username, String password) {
+            this.username = Objects.requireNonNull(username, "username");
+            this.password = Objects.requireNonNull(password, "password");
+            return this;
+        }
+
+        /**
+         * Ключи tenant'а клиента из конфигурации сервиса-потребителя вместо загрузки с /api/auth/keys
+         */
+        public Builder staticKeys(String activeKid, Map<String, byte[]> secrets) {
+            if (activeKid == null || !secrets.containsKey(activeKid)) {
+                throw new IllegalArgumentException("Key set has no secret for active kid " + activeKid);
+            }
+            this.staticActiveKid = activeKid;
+            this.staticSecrets = Map.copyOf(secrets);
+            return this;
+        }
+
+        /**
+         * Число слотов кэша вердиктов (округляется до степени двойки), 0 - без кэша
+         */
+        public Builder cacheSize(int cacheSize) {
+            if (cacheSize < 0) {
+                throw new IllegalArgumentException("Cache size must not be negative: " + cacheSize);
+            }
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /**
+         * Время хранения отрицательного вердикта (положительный хранится до exp токена)
+         */
+        public Builder negativeCacheTtl(Duration ttl) {
+            this.negativeCacheTtl = Objects.requireNonNull(ttl);
+            return this;
+        }
+
+        /**
+         * Время хранения положительного вердикта удаленного /validate (exp токена клиенту неизвестен)
+         */
+        public Builder remoteCacheTtl(Duration ttl) {
+            this.remoteCacheTtl = Objects.requireNonNull(ttl);
+            return this;
+        }
+
+        public Builder keyRefreshInterval(Duration interval) {
+            this.keyRefreshInterval = Objects.requireNonNull(interval);
+            return this;
+        }
+
+        /**
+         * Минимальный интервал внеочередной загрузки ключей при неизвестном kid
+         */
+        public Builder keyRefreshMinInterval(Duration interval) {
+            this.keyRefreshMinInterval = Objects.requireNonNull(interval);
+            return this;
+        }
+
+        /**
+         * Таймаут соединения и запросов к auth-service
+         */
+        public Builder remoteTimeout(Duration timeout) {
+            this.remoteTimeout = Objects.requireNonNull(timeout);
+            return this;
+        }
+
+        public Builder revocationSource(RevocationSource source, Duration syncInterval) {
+            this.revocationSource = Objects.requireNonNull(source);
+            this.revocationSyncInterval = Objects.requireNonNull(syncInterval);
+            return this;
+        }
+
+        public Builder revocationFalsePositiveRate(double rate) {
+            if (!(rate > 0 && rate < 1)) {
+                throw new IllegalArgumentException("False positive rate must be in (0, 1): " + rate);
+            }
+            this.revocationFalsePositiveRate = rate;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = Objects.requireNonNull(meterRegistry);
+            return this;
+        }
+
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = Objects.requireNonNull(httpClient);
+            return this;
+        }
+
+        public AuthClient build() {
+            return new AuthClient(this);
+        }
+    }
+}
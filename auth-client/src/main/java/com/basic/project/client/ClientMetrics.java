@@ -0,0 +1,57 @@
+package com.basic.project.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Метрики клиента: auth.client.validations{source, result}, auth.client.remote.failures,
+ * auth.client.keys.sync{outcome}, auth.client.revocations.sync{outcome}.
+ * Счетчики регистрируются заранее, на горячем пути только increment().
+ */
+final class ClientMetrics {
+
+    enum Source {
+        CACHE, LOCAL, REMOTE, REVOCATION
+    }
+
+    private final Counter[] valid = new Counter[Source.values().length];
+    private final Counter[] invalid = new Counter[Source.values().length];
+    private final Counter remoteFailures;
+    private final Counter keySyncSuccess;
+    private final Counter keySyncFailure;
+    private final Counter revocationSyncSuccess;
+    private final Counter revocationSyncFailure;
+
+    ClientMetrics(MeterRegistry registry) {
+        for (Source source : Source.values()) {
+            String tag = source.name().toLowerCase();
+            valid[source.ordinal()] = Counter.builder("auth.client.validations")
+                    .tag("source", tag).tag("result", "valid").register(registry);
+            invalid[source.ordinal()] = Counter.builder("auth.client.validations")
+                    .tag("source", tag).tag("result", "invalid").register(registry);
+        }
+        remoteFailures = Counter.builder("auth.client.remote.failures")
+                .description("Remote /validate calls that failed; the token was rejected").register(registry);
+        keySyncSuccess = Counter.builder("auth.client.keys.sync").tag("outcome", "success").register(registry);
+        keySyncFailure = Counter.builder("auth.client.keys.sync").tag("outcome", "failure").register(registry);
+        revocationSyncSuccess = Counter.builder("auth.client.revocations.sync").tag("outcome", "success").register(registry);
+        revocationSyncFailure = Counter.builder("auth.client.revocations.sync").tag("outcome", "failure").register(registry);
+    }
+
+    boolean record(Source source, boolean result) {
+        (result ? valid : invalid)[source.ordinal()].increment();
+        return result;
+    }
+
+    void remoteFailure() {
+        remoteFailures.increment();
+    }
+
+    void keySync(boolean success) {
+        (success ? keySyncSuccess : keySyncFailure).increment();
+    }
+
+    void revocationSync(boolean success) {
+        (success ? revocationSyncSuccess : revocationSyncFailure).increment();
+    }
+}
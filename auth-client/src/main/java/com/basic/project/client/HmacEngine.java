@@ -0,0 +1,57 @@
+package com.basic.project.client;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+
+/**
+ * HMAC для одного ключа с заранее вычисленным состоянием (как HmacEngine сервиса):
+ * прототип инициализируется один раз, каждый поток получает свою копию через clone().
+ */
+final class HmacEngine {
+
+    private final Key key;
+    private final Mac prototype;
+    private final ThreadLocal<Mac> mac;
+
+    HmacEngine(String algorithm, byte[] secret) {
+        this.key = new SecretKeySpec(secret, algorithm);
+        this.prototype = newMac(algorithm, key);
+        this.mac = ThreadLocal.withInitial(this::copy);
+    }
+
+    /**
+     * Длина подписи в байтах
+     */
+    int length() {
+        return prototype.getMacLength();
+    }
+
+    /**
+     * Подпись {@code input[0, length)} в {@code output[offset, offset + length())}
+     */
+    void sign(byte[] input, int length, byte[] output, int offset) throws GeneralSecurityException {
+        Mac engine = mac.get();
+        engine.update(input, 0, length);
+        engine.doFinal(output, offset);
+    }
+
+    private Mac copy() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return newMac(prototype.getAlgorithm(), key);
+        }
+    }
+
+    private static Mac newMac(String algorithm, Key key) {
+        try {
+            Mac instance = Mac.getInstance(algorithm);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize " + algorithm, e);
+        }
+    }
+}
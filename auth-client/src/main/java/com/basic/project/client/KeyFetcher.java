@@ -0,0 +1,107 @@
+package com.basic.project.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Загрузка ключей с GET /api/auth/keys?tenant=... (httpBasic, учетная запись auth.keys):
+ * {"activeKid": "...", "keys": [{"kid": "...", "secret": "<base64url>"}]}
+ */
+final class KeyFetcher {
+
+    static final String KEYS_PATH = "/api/auth/keys";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final HttpClient httpClient;
+    private final HttpRequest request;
+    private final String tenant;
+
+    /**
+     * @param tenant tenant, ключи которого загружаются; {@code null} - tenant по умолчанию
+     */
+    KeyFetcher(HttpClient httpClient, URI baseUrl, String tenant, String username, String password, Duration timeout) {
+        String credentials = Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        String path = tenant != null ? KEYS_PATH + "?tenant=" + URLEncoder.encode(tenant, StandardCharsets.UTF_8) : KEYS_PATH;
+        this.httpClient = httpClient;
+        this.tenant = tenant;
+        this.request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .header("Authorization", "Basic " + credentials)
+                .header("Accept", "application/json")
+                .timeout(timeout)
+                .GET()
+                .build();
+    }
+
+    KeySet fetch(KeySet previous) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("Key request failed with status " + response.statusCode());
+        }
+        return parse(tenant, response.body(), previous);
+    }
+
+    static KeySet parse(String tenant, byte[] body, KeySet previous) throws IOException {
+        String activeKid = null;
+        Map<String, byte[]> secrets = new HashMap<>();
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Key set must be a JSON object");
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                if ("activeKid".equals(field) && value == JsonToken.VALUE_STRING) {
+                    activeKid = parser.getText();
+                } else if ("keys".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readKey(parser, secrets);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        try {
+            return KeySet.of(tenant, activeKid, secrets, previous);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static void readKey(JsonParser parser, Map<String, byte[]> secrets) throws IOException {
+        String kid = null;
+        String secret = null;
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "kid" -> kid = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                case "secret" -> secret = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                default -> parser.skipChildren();
+            }
+        }
+        if (kid == null || secret == null) {
+            throw new IOException("Key entry without kid or secret");
+        }
+        try {
+            secrets.put(kid, Base64.getUrlDecoder().decode(secret));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Key " + kid + " secret is not base64url", e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.basic.project.client;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Неизменяемый снимок ключей проверки одного tenant'а: kid активного ключа и HMAC движки по kid.
+ * Подменяется целиком при синхронизации, поиск на горячем пути без блокировок.
+ */
+final class KeySet {
+
+    static final String COMPACT_KEY_LABEL = "basic-project/jwt/compact-hs256";
+
+    private final String tenant;
+    private final String activeKid;
+    private final Map<String, VerificationKey> keys;
+
+    private KeySet(String tenant, String activeKid, Map<String, VerificationKey> keys) {
+        this.tenant = tenant;
+        this.activeKid = activeKid;
+        this.keys = keys;
+    }
+
+    /**
+     * Новый снимок ключей tenant'а ({@code null} - tenant по умолчанию, токены без claim tid);
+     * движки ключей с неизменившимся секретом переиспользуются из {@code previous}
+     */
+    static KeySet of(String tenant, String activeKid, Map<String, byte[]> secrets, KeySet previous) {
+        if (activeKid == null || !secrets.containsKey(activeKid)) {
+            throw new IllegalArgumentException("Key set has no secret for active kid " + activeKid);
+        }
+        Map<String, VerificationKey> keys = new HashMap<>();
+        secrets.forEach((kid, secret) -> {
+            VerificationKey existing = previous != null ? previous.keys.get(kid) : null;
+            keys.put(kid, existing != null && MessageDigest.isEqual(existing.secret, secret)
+                    ? existing : new VerificationKey(secret.clone()));
+        });
+        return new KeySet(tenant, activeKid, Map.copyOf(keys));
+    }
+
+    /**
+     * Ключ по kid; без kid - активный (так же, как JwtKeyRing сервиса)
+     */
+    VerificationKey find(String kid) {
+        return keys.get(kid != null ? kid : activeKid);
+    }
+
+    /**
+     * Tenant ключей: claim tid токена должен с ним совпадать
+     */
+    String tenant() {
+        return tenant;
+    }
+
+    String activeKid() {
+        return activeKid;
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    /**
+     * HMAC движки одного ключа: HS512 для стандартного формата и HS256 для компактного.
+     * Ключ HS256 выводится из секрета так же, как в JwtKeyRing сервиса.
+     */
+    static final class VerificationKey {
+
+        private final byte[] secret;
+        private final HmacEngine engine;
+        private final HmacEngine compactEngine;
+
+        private VerificationKey(byte[] secret) {
+            this.secret = secret;
+            this.engine = new HmacEngine("HmacSHA512", secret);
+            this.compactEngine = new HmacEngine("HmacSHA256", compactSecret(secret));
+        }
+
+        HmacEngine engine() {
+            return engine;
+        }
+
+        HmacEngine compactEngine() {
+            return compactEngine;
+        }
+
+        /**
+         * HKDF-Expand (RFC 5869) по HMAC-SHA256 на 32 байта с меткой COMPACT_KEY_LABEL, как у сервиса
+         */
+        static byte[] compactSecret(byte[] secret) {
+            byte[] label = COMPACT_KEY_LABEL.getBytes(StandardCharsets.US_ASCII);
+            byte[] info = Arrays.copyOf(label, label.length + 1);
+            info[label.length] = 1;
+            HmacEngine hkdf = new HmacEngine("HmacSHA256", secret);
+            byte[] derived = new byte[hkdf.length()];
+            try {
+                hkdf.sign(info, info.length, derived, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+            return derived;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.basic.project.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * Локальная проверка access токенов - перенос TokenVerifier сервиса.
+ * Токен читается из строки по смещению, HMAC считается по сырым байтам с ключом по kid из {@link KeySet},
+ * из payload потоково читаются только type/t, exp, nbf и tid.
+ * Принимаются оба формата сервиса: HS512 с claim type и HS256 с claim t.
+ * Claim tid должен совпадать с tenant'ом набора ключей (у tenant'а по умолчанию tid отсутствует),
+ * как в TokenVerifier сервиса: токен другого tenant'а не проходит.
+ */
+final class LocalTokenVerifier {
+
+    /** Токен недействителен */
+    static final long INVALID = -1;
+    /** kid нет в наборе ключей: нужна синхронизация ключей или удаленная проверка */
+    static final long UNKNOWN_KEY = -2;
+
+    static final int MAX_TOKEN_LENGTH = 8192;
+    private static final String ALGORITHM = "HS512";
+    private static final String COMPACT_ALGORITHM = "HS256";
+    private static final int SIGNATURE_LENGTH = 64;
+    private static final char[] ACCESS_TYPE = "access".toCharArray();
+    private static final char ACCESS_TYPE_CODE = 'a';
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private LocalTokenVerifier() {
+    }
+
+    /**
+     * Проверка access токена, начинающегося с позиции {@code from} строки {@code source}.
+     * Возвращает exp (секунды эпохи) действительного токена, {@link #INVALID} или {@link #UNKNOWN_KEY}.
+     */
+    static long verify(String source, int from, KeySet keys, long nowSeconds) {
+        int end = source.length();
+        if (from < 0 || end - from > MAX_TOKEN_LENGTH) {
+            return INVALID;
+        }
+        int headerEnd = source.indexOf('.', from);
+        if (headerEnd <= from) {
+            return INVALID;
+        }
+        int payloadEnd = source.indexOf('.', headerEnd + 1);
+        if (payloadEnd <= headerEnd + 1 || payloadEnd == end - 1 || source.indexOf('.', payloadEnd + 1) >= 0) {
+            return INVALID;
+        }
+
+        Scratch scratch = SCRATCH.get();
+        try {
+            int headerLength = decode(source, from, headerEnd, scratch.decoded);
+            if (headerLength < 0 || !readHeader(scratch.decoded, headerLength, scratch)) {
+                return INVALID;
+            }
+            KeySet.VerificationKey key = keys.find(scratch.kid);
+            if (key == null) {
+                return UNKNOWN_KEY;
+            }
+            HmacEngine engine = scratch.compact ? key.compactEngine() : key.engine();
+
+            int signatureLength = engine.length();
+            if (decode(source, payloadEnd + 1, end, scratch.signature) != signatureLength) {
+                return INVALID;
+            }
+            int signedLength = payloadEnd - from;
+            byte[] input = scratch.input(signedLength);
+            for (int i = 0; i < signedLength; i++) {
+                char c = source.charAt(from + i);
+                if (c > 0x7F) {
+                    return INVALID;
+                }
+                input[i] = (byte) c;
+            }
+            engine.sign(input, signedLength, scratch.expected, 0);
+            if (!constantTimeEquals(scratch.expected, scratch.signature, signatureLength)) {
+                return INVALID;
+            }
+
+            int payloadLength = decode(source, headerEnd + 1, payloadEnd, scratch.decoded);
+            if (payloadLength < 0) {
+                return INVALID;
+            }
+            return readClaims(scratch.decoded, payloadLength, scratch.compact, keys.tenant(), nowSeconds);
+        } catch (IOException | GeneralSecurityException e) {
+            return INVALID;
+        }
+    }
+
+    /**
+     * Разбор заголовка: alg должен быть HS512 или HS256, kid запоминается в {@code scratch.kid}
+     */
+    private static boolean readHeader(byte[] json, int length, Scratch scratch) throws IOException {
+        String algorithm = null;
+        scratch.kid = null;
+        try (JsonParser parser = JSON.createParser(json, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "alg" -> algorithm = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    case "kid" -> {
+                        if (value != JsonToken.VALUE_STRING) {
+                            return false;
+                        }
+                        scratch.kid = parser.getText();
+                    }
+                    case "zip", "crit" -> {
+                        return false;
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        scratch.compact = COMPACT_ALGORITHM.equals(algorithm);
+        return scratch.compact || ALGORITHM.equals(algorithm);
+    }
+
+    /**
+     * Совпадение claim tid токена с {@code tenant} без проверки подписи - для удаленной проверки:
+     * подпись и tid относительно ключа проверяет сервис, здесь - принадлежность токена tenant'у клиента
+     */
+    static boolean hasTenant(String source, int from, String tenant) {
+        int headerEnd = source.indexOf('.', from);
+        int payloadEnd = headerEnd < 0 ? -1 : source.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0 || payloadEnd - from > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+        Scratch scratch = SCRATCH.get();
+        int payloadLength = decode(source, headerEnd + 1, payloadEnd, scratch.decoded);
+        if (payloadLength < 0) {
+            return false;
+        }
+        boolean tenantMatches = tenant == null;
+        try (JsonParser parser = JSON.createParser(scratch.decoded, 0, payloadLength)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                if ("tid".equals(field)) {
+                    tenantMatches = tenant != null && value == JsonToken.VALUE_STRING && textEquals(parser, tenant);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return tenantMatches;
+    }
+
+    private static long readClaims(byte[] json, int length, boolean compact, String tenant, long now)
+            throws IOException {
+        boolean typeMatches = false;
+        boolean tenantMatches = tenant == null;
+        long expiresAt = -1;
+        long notBefore = -1;
+        try (JsonParser parser = JSON.createParser(json, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return INVALID;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "type" -> typeMatches = !compact && value == JsonToken.VALUE_STRING
+                            && textEquals(parser, ACCESS_TYPE);
+                    case "t" -> typeMatches = compact && value == JsonToken.VALUE_STRING
+                            && parser.getTextLength() == 1
+                            && parser.getTextCharacters()[parser.getTextOffset()] == ACCESS_TYPE_CODE;
+                    case "exp" -> expiresAt = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                    case "nbf" -> notBefore = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                    case "tid" -> tenantMatches = tenant != null && value == JsonToken.VALUE_STRING
+                            && textEquals(parser, tenant);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        if (!typeMatches || !tenantMatches || expiresAt <= now || notBefore > now) {
+            return INVALID;
+        }
+        return expiresAt;
+    }
+
+    private static boolean textEquals(JsonParser parser, String expected) throws IOException {
+        if (parser.getTextLength() != expected.length()) {
+            return false;
+        }
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        for (int i = 0; i < expected.length(); i++) {
+            if (text[offset + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean textEquals(JsonParser parser, char[] expected) throws IOException {
+        if (parser.getTextLength() != expected.length) {
+            return false;
+        }
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        for (int i = 0; i < expected.length; i++) {
+            if (text[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Base64url без паддинга из {@code source[from, to)} в {@code target}.
+     * Возвращает число байт или -1 при некорректном вводе/переполнении
+     * и при ненулевых лишних битах последнего символа (неканоническая запись тех же байт).
+     */
+    private static int decode(String source, int from, int to, byte[] target) {
+        int length = to - from;
+        if (length % 4 == 1 || length / 4 * 3 + 2 > target.length) {
+            return -1;
+        }
+        int bits = 0;
+        int bitCount = 0;
+        int written = 0;
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            int value = c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                target[written++] = (byte) (bits >> bitCount);
+            }
+        }
+        if ((bits & ((1 << bitCount) - 1)) != 0) {
+            return -1;
+        }
+        return written;
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b, int length) {
+        int diff = 0;
+        for (int i = 0; i < length; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    /**
+     * Переиспользуемые буферы потока
+     */
+    private static final class Scratch {
+        private final byte[] decoded = new byte[MAX_TOKEN_LENGTH];
+        private final byte[] signature = new byte[SIGNATURE_LENGTH + 2];
+        private final byte[] expected = new byte[SIGNATURE_LENGTH];
+        private byte[] input = new byte[1024];
+        private boolean compact;
+        private String kid;
+
+        private byte[] input(int length) {
+            if (input.length < length) {
+                input = new byte[Math.max(length, input.length * 2)];
+            }
+            return input;
+        }
+    }
+}
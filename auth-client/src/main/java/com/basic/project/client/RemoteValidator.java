@@ -0,0 +1,42 @@
+package com.basic.project.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Удаленная проверка через POST /api/auth/validate - fallback, когда локально решить нельзя
+ */
+final class RemoteValidator {
+
+    static final String VALIDATE_PATH = "/api/auth/validate";
+
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final Duration timeout;
+
+    RemoteValidator(HttpClient httpClient, URI baseUrl, Duration timeout) {
+        this.httpClient = httpClient;
+        this.uri = baseUrl.resolve(VALIDATE_PATH);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Вердикт сервиса; исключение, если сервис недоступен или ответил не 200
+     */
+    boolean validate(String token) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .timeout(timeout)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Validate request failed with status " + response.statusCode());
+        }
+        return "true".equals(response.body().trim());
+    }
+}
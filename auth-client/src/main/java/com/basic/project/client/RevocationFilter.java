@@ -0,0 +1,68 @@
+package com.basic.project.client;
+
+import java.util.Collection;
+
+/**
+ * Фильтр Блума по дайджестам отозванных токенов.
+ * Строится целиком при каждой синхронизации и подменяется атомарно; проверка - k чтений битов без аллокаций.
+ * Ложноположительное срабатывание отклоняет действительный токен с вероятностью {@code falsePositiveRate},
+ * ложноотрицательных нет.
+ */
+final class RevocationFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashes;
+    private final int entries;
+
+    private RevocationFilter(long[] bits, long bitCount, int hashes, int entries) {
+        this.bits = bits;
+        this.bitCount = bitCount;
+        this.hashes = hashes;
+        this.entries = entries;
+    }
+
+    /**
+     * Фильтр по дайджестам в base64url ({@link AuthClient#tokenDigest(String)}); некорректные строки пропускаются
+     */
+    static RevocationFilter build(Collection<String> digests, double falsePositiveRate) {
+        int expected = Math.max(digests.size(), 1);
+        double ln2 = Math.log(2);
+        long bitCount = Math.max(64, (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        int hashes = Math.max(1, (int) Math.round((double) bitCount / expected * ln2));
+        RevocationFilter filter = new RevocationFilter(new long[(int) ((bitCount + 63) >>> 6)], bitCount, hashes,
+                digests.size());
+        for (String encoded : digests) {
+            long[] digest = TokenDigest.decode(encoded);
+            if (digest != null) {
+                filter.add(digest[0], digest[1]);
+            }
+        }
+        return filter;
+    }
+
+    boolean mightContain(TokenDigest digest) {
+        long combined = digest.high();
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(combined, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += digest.low();
+        }
+        return true;
+    }
+
+    int entries() {
+        return entries;
+    }
+
+    private void add(long high, long low) {
+        long combined = high;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(combined, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+            combined += low;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.basic.project.client;
+
+import java.util.Collection;
+
+/**
+ * Источник списка отозванных токенов, опрашивается периодически (см. {@link AuthClient.Builder#revocationSource}).
+ * Токены идентифицируются дайджестом {@link AuthClient#tokenDigest(String)}, сами токены не передаются.
+ */
+@FunctionalInterface
+public interface RevocationSource {
+
+    /**
+     * Полный текущий список дайджестов отозванных и еще не истекших токенов
+     */
+    Collection<String> revokedTokenDigests() throws Exception;
+}
@@ -0,0 +1,103 @@
+package com.basic.project.client;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * SHA-256 токена - ключ кэша вердиктов и фильтра отзыва.
+ * Криптографический дайджест, чтобы по кэшу нельзя было подобрать другой токен с тем же ключом.
+ * Экземпляр на поток переиспользуется, в кэше и фильтре используются первые 128 бит ({@link #high}, {@link #low}).
+ */
+final class TokenDigest {
+
+    static final int LENGTH = 32;
+
+    private static final ThreadLocal<TokenDigest> CURRENT = ThreadLocal.withInitial(TokenDigest::new);
+
+    private final MessageDigest sha256;
+    private final byte[] digest = new byte[LENGTH];
+    private byte[] input = new byte[1024];
+    private long high;
+    private long low;
+
+    private TokenDigest() {
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Дайджест {@code source[from, source.length())} в экземпляре текущего потока.
+     * Возвращает {@code null} для не-ASCII строки (такой токен заведомо недействителен).
+     */
+    static TokenDigest compute(String source, int from) {
+        TokenDigest current = CURRENT.get();
+        return current.update(source, from) ? current : null;
+    }
+
+    /**
+     * Дайджест в base64url - формат идентификаторов для {@link RevocationSource}
+     */
+    static String encode(String token) {
+        TokenDigest digest = compute(token, 0);
+        if (digest == null) {
+            throw new IllegalArgumentException("Token must be ASCII");
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest);
+    }
+
+    /**
+     * Первые 128 бит дайджеста из base64url строки: {high, low} или {@code null} для некорректной строки
+     */
+    static long[] decode(String encoded) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return bytes.length == LENGTH ? new long[]{readLong(bytes, 0), readLong(bytes, 8)} : null;
+    }
+
+    long high() {
+        return high;
+    }
+
+    long low() {
+        return low;
+    }
+
+    private boolean update(String source, int from) {
+        int length = source.length() - from;
+        if (input.length < length) {
+            input = new byte[Math.max(length, input.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = source.charAt(from + i);
+            if (c > 0x7F) {
+                return false;
+            }
+            input[i] = (byte) c;
+        }
+        try {
+            sha256.update(input, 0, length);
+            sha256.digest(digest, 0, LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 failed", e);
+        }
+        high = readLong(digest, 0);
+        low = readLong(digest, 8);
+        return true;
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,69 @@
+package com.basic.project.client;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченный кэш вердиктов по дайджесту токена.
+ * Прямое отображение: слот выбирается по битам дайджеста, новая запись вытесняет старую из того же слота.
+ * Без блокировок и фоновой очистки; запись живет до exp токена (или заданного TTL для отрицательных вердиктов).
+ */
+final class VerdictCache {
+
+    static final int MISS = -1;
+    static final int INVALID = 0;
+    static final int VALID = 1;
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final int mask;
+
+    VerdictCache(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + size);
+        }
+        int capacity = Integer.highestOneBit(Math.min(size, 1 << 30));
+        capacity = capacity < size ? capacity << 1 : capacity;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * {@link #VALID}, {@link #INVALID} или {@link #MISS}, если записи нет или она истекла
+     */
+    int get(TokenDigest digest, long nowSeconds) {
+        Entry entry = entries.get(index(digest));
+        if (entry == null || entry.high != digest.high() || entry.low != digest.low()
+                || entry.expiresAt <= nowSeconds) {
+            return MISS;
+        }
+        return entry.valid ? VALID : INVALID;
+    }
+
+    void put(TokenDigest digest, boolean valid, long expiresAt) {
+        entries.set(index(digest), new Entry(digest.high(), digest.low(), valid, expiresAt));
+    }
+
+    /**
+     * Число занятых слотов с неистекшими записями (для метрик; проход по всему массиву)
+     */
+    int size(long nowSeconds) {
+        int size = 0;
+        for (int i = 0; i < entries.length(); i++) {
+            Entry entry = entries.get(i);
+            if (entry != null && entry.expiresAt > nowSeconds) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    int capacity() {
+        return entries.length();
+    }
+
+    private int index(TokenDigest digest) {
+        return (int) digest.high() & mask;
+    }
+
+    private record Entry(long high, long low, boolean valid, long expiresAt) {
+    }
+}
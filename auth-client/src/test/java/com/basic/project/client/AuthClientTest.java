@@ -0,0 +1,209 @@
+package com.basic.project.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthClientTest {
+
+    private static final String KID = "v1";
+
+    private FakeAuthService authService;
+    private SimpleMeterRegistry registry;
+    private AuthClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        authService = new FakeAuthService(KID, TestTokens.SECRET);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        authService.close();
+    }
+
+    @Test
+    void validTokenIsVerifiedLocallyThenServedFromCache() {
+        client = connectedClient();
+        String token = TestTokens.access(KID, TestTokens.SECRET, "user@example.com", TestTokens.inOneHour());
+
+        assertTrue(client.validate("Bearer " + token));
+        assertTrue(client.validate(token));
+
+        assertEquals(0, authService.validateRequests.get());
+        assertEquals(1, validations("local", "valid"));
+        assertEquals(1, validations("cache", "valid"));
+    }
+
+    @Test
+    void compactTokenIsVerifiedLocally() {
+        client = connectedClient();
+
+        assertTrue(client.validate("Bearer " + TestTokens.compactAccess(KID, TestTokens.SECRET, 42, TestTokens.inOneHour())));
+        assertEquals(0, authService.validateRequests.get());
+    }
+
+    @Test
+    void invalidTokensAreRejectedWithoutRemoteCall() {
+        client = connectedClient();
+        long past = System.currentTimeMillis() / 1000 - 10;
+        String token = TestTokens.access(KID, TestTokens.SECRET, "user@example.com", TestTokens.inOneHour());
+
+        assertFalse(client.validate("Bearer " + TestTokens.flipSignatureCharacter(token)));
+        assertFalse(client.validate("Bearer " + TestTokens.setTrailingBit(token)));
+        assertFalse(client.validate("Bearer " + TestTokens.access(KID, TestTokens.SECRET, "user@example.com", past)));
+        assertFalse(client.validate("Bearer " + TestTokens.refresh(KID, TestTokens.SECRET, "user@example.com", TestTokens.inOneHour())));
+        assertFalse(client.validate("Bearer " + TestTokens.access(KID, TestTokens.ROTATED_SECRET, "user@example.com", TestTokens.inOneHour())));
+        assertFalse(client.validate("Bearer not-a-token"));
+        assertFalse(client.validate("Bearer "));
+        assertFalse(client.validate(null));
+
+        assertEquals(0, authService.validateRequests.get());
+        assertEquals(8, validations("local", "invalid"));
+    }
+
+    @Test
+    void unknownKidFallsBackToRemoteAndRefreshesKeys() throws Exception {
+        client = AuthClient.builder(authService.baseUrl())
+                .credentials("auth-client", "keys-test")
+                .keyRefreshInterval(Duration.ofHours(1))
+                .keyRefreshMinInterval(Duration.ZERO)
+                .meterRegistry(registry)
+                .build();
+        assertTrue(client.refreshKeys());
+        authService.keys("v2", Map.of(KID, TestTokens.SECRET, "v2", TestTokens.ROTATED_SECRET));
+        String rotated = TestTokens.access("v2", TestTokens.ROTATED_SECRET, "user@example.com", TestTokens.inOneHour());
+
+        assertTrue(client.validate("Bearer " + rotated));
+        assertEquals(1, authService.validateRequests.get());
+        assertEquals(1, validations("remote", "valid"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.get("auth.client.keys").gauge().value() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        String another = TestTokens.access("v2", TestTokens.ROTATED_SECRET, "other@example.com", TestTokens.inOneHour());
+        assertTrue(client.validate("Bearer " + another));
+        assertEquals(1, authService.validateRequests.get());
+        assertEquals(1, validations("local", "valid"));
+    }
+
+    @Test
+    void withoutCredentialsEveryNewTokenGoesRemote() {
+        client = AuthClient.builder(authService.baseUrl()).meterRegistry(registry).build();
+        String token = TestTokens.access(KID, TestTokens.SECRET, "user@example.com", TestTokens.inOneHour());
+        authService.validateAnswer(false);
+
+        assertFalse(client.validate("Bearer " + token));
+        assertFalse(client.validate("Bearer " + token));
+
+        assertEquals(1, authService.validateRequests.get());
+        assertEquals(1, validations("remote", "invalid"));
+        assertEquals(1, validations("cache", "invalid"));
+    }
+
+    @Test
+    void remoteFailureRejectsToken() {
+        client = AuthClient.builder(URI.create("http://localhost:1"))
+                .remoteTimeout(Duration.ofMillis(500))
+                .meterRegistry(registry)
+                .build();
+
+        assertFalse(client.validate("Bearer " + TestTokens.access(KID, TestTokens.SECRET, "u@example.com", TestTokens.inOneHour())));
+        assertEquals(1, registry.get("auth.client.remote.failures").counter().count());
+    }
+
+    @Test
+    void wrongCredentialsKeepClientOnRemoteValidation() {
+        client = AuthClient.builder(authService.baseUrl())
+                .credentials("auth-client", "wrong")
+                .keyRefreshInterval(Duration.ofHours(1))
+                .meterRegistry(registry)
+                .build();
+
+        assertFalse(client.refreshKeys());
+        assertTrue(client.validate("Bearer " + TestTokens.access(KID, TestTokens.SECRET, "u@example.com", TestTokens.inOneHour())));
+        assertEquals(1, authService.validateRequests.get());
+        assertTrue(registry.get("auth.client.keys.sync").tag("outcome", "failure").counter().count() >= 1);
+    }
+
+    @Test
+    void tenantClientAcceptsOnlyItsTenantTokens() {
+        client = AuthClient.builder(authService.baseUrl())
+                .tenant("shop")
+                .credentials("auth-client", "keys-test")
+                .keyRefreshInterval(Duration.ofHours(1))
+                .meterRegistry(registry)
+                .build();
+        assertTrue(client.refreshKeys());
+        assertEquals("tenant=shop", authService.lastKeysQuery);
+
+        long exp = TestTokens.inOneHour();
+        assertTrue(client.validate("Bearer " + TestTokens.tenantAccess(KID, TestTokens.SECRET, "shop", "u@example.com", exp)));
+        assertFalse(client.validate("Bearer " + TestTokens.tenantAccess(KID, TestTokens.SECRET, "blog", "u@example.com", exp)));
+        assertFalse(client.validate("Bearer " + TestTokens.access(KID, TestTokens.SECRET, "u@example.com", exp)));
+        assertEquals(0, authService.validateRequests.get());
+    }
+
+    @Test
+    void remoteFallbackRejectsOtherTenantTokens() {
+        client = AuthClient.builder(authService.baseUrl()).tenant("shop").meterRegistry(registry).build();
+        long exp = TestTokens.inOneHour();
+
+        assertFalse(client.validate("Bearer " + TestTokens.tenantAccess("v9", TestTokens.SECRET, "blog", "u@example.com", exp)));
+        assertFalse(client.validate("Bearer " + TestTokens.access("v9", TestTokens.SECRET, "u@example.com", exp)));
+        assertEquals(0, authService.validateRequests.get());
+
+        assertTrue(client.validate("Bearer " + TestTokens.tenantAccess("v9", TestTokens.SECRET, "shop", "u@example.com", exp)));
+        assertEquals(1, authService.validateRequests.get());
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenWhenCached() {
+        Set<String> revoked = new CopyOnWriteArraySet<>();
+        client = AuthClient.builder(authService.baseUrl())
+                .staticKeys(KID, Map.of(KID, TestTokens.SECRET))
+                .revocationSource(() -> List.copyOf(revoked), Duration.ofHours(1))
+                .meterRegistry(registry)
+                .build();
+        String token = TestTokens.access(KID, TestTokens.SECRET, "user@example.com", TestTokens.inOneHour());
+        String other = TestTokens.access(KID, TestTokens.SECRET, "other@example.com", TestTokens.inOneHour());
+        assertTrue(client.validate("Bearer " + token));
+
+        revoked.add(AuthClient.tokenDigest(token));
+        assertTrue(client.syncRevocations());
+
+        assertFalse(client.validate("Bearer " + token));
+        assertTrue(client.validate("Bearer " + other));
+        assertEquals(1, validations("revocation", "invalid"));
+        assertEquals(1.0, registry.get("auth.client.revocations").gauge().value());
+    }
+
+    private AuthClient connectedClient() {
+        AuthClient connected = AuthClient.builder(authService.baseUrl())
+                .credentials("auth-client", "keys-test")
+                .keyRefreshInterval(Duration.ofHours(1))
+                .meterRegistry(registry)
+                .build();
+        assertTrue(connected.refreshKeys());
+        return connected;
+    }
+
+    private double validations(String source, String result) {
+        return registry.get("auth.client.validations").tag("source", source).tag("result", result).counter().count();
+    }
+}
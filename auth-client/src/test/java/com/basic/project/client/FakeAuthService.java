@@ -0,0 +1,86 @@
+package com.basic.project.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Заглушка auth-service: GET /api/auth/keys (httpBasic auth-client/keys-test) и POST /api/auth/validate
+ */
+final class FakeAuthService implements AutoCloseable {
+
+    private static final String BASIC = "Basic " + Base64.getEncoder()
+            .encodeToString("auth-client:keys-test".getBytes(StandardCharsets.UTF_8));
+
+    final AtomicInteger keyRequests = new AtomicInteger();
+    final AtomicInteger validateRequests = new AtomicInteger();
+    volatile String lastKeysQuery;
+
+    private final HttpServer server;
+    private volatile String activeKid;
+    private volatile Map<String, byte[]> keys;
+    private volatile boolean validateAnswer = true;
+
+    FakeAuthService(String activeKid, byte[] secret) throws IOException {
+        keys(activeKid, Map.of(activeKid, secret));
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(KeyFetcher.KEYS_PATH, this::keys);
+        server.createContext(RemoteValidator.VALIDATE_PATH, this::validate);
+        server.start();
+    }
+
+    URI baseUrl() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    void keys(String activeKid, Map<String, byte[]> keys) {
+        this.keys = new LinkedHashMap<>(keys);
+        this.activeKid = activeKid;
+    }
+
+    void validateAnswer(boolean answer) {
+        this.validateAnswer = answer;
+    }
+
+    private void keys(HttpExchange exchange) throws IOException {
+        keyRequests.incrementAndGet();
+        lastKeysQuery = exchange.getRequestURI().getRawQuery();
+        if (!BASIC.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            respond(exchange, 401, "");
+            return;
+        }
+        String entries = keys.entrySet().stream()
+                .map(e -> "{\"kid\":\"" + e.getKey() + "\",\"secret\":\""
+                        + Base64.getUrlEncoder().withoutPadding().encodeToString(e.getValue()) + "\"}")
+                .collect(Collectors.joining(","));
+        respond(exchange, 200, "{\"activeKid\":\"" + activeKid + "\",\"keys\":[" + entries + "]}");
+    }
+
+    private void validate(HttpExchange exchange) throws IOException {
+        validateRequests.incrementAndGet();
+        respond(exchange, 200, String.valueOf(validateAnswer));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.basic.project.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationFilterTest {
+
+    @Test
+    void containsEveryRevokedDigest() {
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            revoked.add(AuthClient.tokenDigest("revoked.token." + i));
+        }
+        RevocationFilter filter = RevocationFilter.build(revoked, 1e-6);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(TokenDigest.compute("revoked.token." + i, 0)));
+        }
+        assertEquals(10_000, filter.entries());
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfigured() {
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            revoked.add(AuthClient.tokenDigest("revoked.token." + i));
+        }
+        RevocationFilter filter = RevocationFilter.build(revoked, 0.01);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(TokenDigest.compute("valid.token." + i, 0))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyListAndMalformedDigestsRevokeNothing() {
+        RevocationFilter filter = RevocationFilter.build(List.of("not base64!", "c2hvcnQ"), 1e-6);
+
+        assertFalse(filter.mightContain(TokenDigest.compute("any.token.value", 0)));
+        assertFalse(RevocationFilter.build(List.of(), 1e-6).mightContain(TokenDigest.compute("any.token.value", 0)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.basic.project.client;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Токены в форматах auth-service для тестов и бенчмарков клиента
+ */
+public final class TestTokens {
+
+    public static final byte[] SECRET =
+            "client-test-secret-that-is-at-least-64-bytes-long-for-hs512-signing".getBytes(StandardCharsets.UTF_8);
+    public static final byte[] ROTATED_SECRET =
+            "client-rotated-secret-that-is-at-least-64-bytes-long-for-hs512-sign".getBytes(StandardCharsets.UTF_8);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private TestTokens() {
+    }
+
+    /**
+     * Стандартный формат: HS512, claim type
+     */
+    public static String access(String kid, byte[] secret, String subject, long expiresAt) {
+        long now = System.currentTimeMillis() / 1000;
+        return sign("HS512", kid, secret, "{\"sub\":\"" + subject + "\",\"type\":\"access\",\"iat\":" + now
+                + ",\"exp\":" + expiresAt + "}");
+    }
+
+    /**
+     * Стандартный формат с claim tid токена tenant'а
+     */
+    public static String tenantAccess(String kid, byte[] secret, String tenant, String subject, long expiresAt) {
+        return sign("HS512", kid, secret, "{\"sub\":\"" + subject + "\",\"type\":\"access\",\"tid\":\"" + tenant
+                + "\",\"exp\":" + expiresAt + "}");
+    }
+
+    public static String refresh(String kid, byte[] secret, String subject, long expiresAt) {
+        return sign("HS512", kid, secret, "{\"sub\":\"" + subject + "\",\"type\":\"refresh\",\"exp\":" + expiresAt + "}");
+    }
+
+    /**
+     * Компактный формат: HS256 ключом, выведенным из секрета, claim t и числовой sub
+     */
+    public static String compactAccess(String kid, byte[] secret, long userId, long expiresAt) {
+        return sign("HS256", kid, KeySet.VerificationKey.compactSecret(secret), "{\"sub\":\"" + userId + "\",\"t\":\"a\",\"exp\":" + expiresAt + "}");
+    }
+
+    /**
+     * Замена символа в середине подписи: меняет декодированные байты при любом исходном символе
+     */
+    public static String flipSignatureCharacter(String token) {
+        int index = (token.lastIndexOf('.') + 1 + token.length()) / 2;
+        char replacement = token.charAt(index) == 'A' ? 'B' : 'A';
+        return token.substring(0, index) + replacement + token.substring(index + 1);
+    }
+
+    /**
+     * Подпись HS512 (64 байта) занимает 86 символов, у последнего 4 лишних бита; младший бит
+     * дает неканоническую запись тех же байт
+     */
+    public static String setTrailingBit(String token) {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        int last = alphabet.indexOf(token.charAt(token.length() - 1));
+        return token.substring(0, token.length() - 1) + alphabet.charAt(last | 1);
+    }
+
+    public static long inOneHour() {
+        return System.currentTimeMillis() / 1000 + 3600;
+    }
+
+    private static String sign(String algorithm, String kid, byte[] secret, String payload) {
+        String signingInput = encode("{\"alg\":\"" + algorithm + "\",\"kid\":\"" + kid + "\"}") + "." + encode(payload);
+        String macAlgorithm = "HS512".equals(algorithm) ? "HmacSHA512" : "HmacSHA256";
+        try {
+            Mac mac = Mac.getInstance(macAlgorithm);
+            mac.init(new SecretKeySpec(secret, macAlgorithm));
+            return signingInput + "." + ENCODER.encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String json) {
+        return ENCODER.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
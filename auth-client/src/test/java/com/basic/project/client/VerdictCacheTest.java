@@ -0,0 +1,36 @@
+package com.basic.project.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerdictCacheTest {
+
+    @Test
+    void capacityIsRoundedToPowerOfTwo() {
+        assertEquals(1024, new VerdictCache(1000).capacity());
+        assertEquals(1024, new VerdictCache(1024).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new VerdictCache(0));
+    }
+
+    @Test
+    void entriesExpireAndAreKeyedByFullDigest() {
+        VerdictCache cache = new VerdictCache(16);
+        TokenDigest digest = TokenDigest.compute("first.token.value", 0);
+        cache.put(digest, true, 100);
+
+        assertEquals(VerdictCache.VALID, cache.get(TokenDigest.compute("first.token.value", 0), 99));
+        assertEquals(VerdictCache.MISS, cache.get(TokenDigest.compute("first.token.value", 0), 100));
+        assertEquals(VerdictCache.MISS, cache.get(TokenDigest.compute("second.token.value", 0), 99));
+        assertEquals(1, cache.size(99));
+        assertEquals(0, cache.size(100));
+    }
+
+    @Test
+    void digestSkipsBearerPrefixAndRejectsNonAscii() {
+        TokenDigest plain = TokenDigest.compute("a.b.c", 0);
+        long high = plain.high();
+        assertEquals(high, TokenDigest.compute("Bearer a.b.c", 7).high());
+        assertNull(TokenDigest.compute("a.b.ц", 0));
+    }
+}
@@ -0,0 +1,73 @@
+package com.basic.project.client.benchmark;
+
+import com.basic.project.client.AuthClient;
+import com.basic.project.client.TestTokens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность локальной проверки в AuthClient (без сети):
+ * cache=off - каждая проверка считает HMAC, cache=on - повторные токены отвечаются из кэша вердиктов.
+ * tokens - число разных токенов в обращении (больше слотов кэша - часть проверок промахивается).
+ * Для сравнения с удаленной проверкой см. ValidateChainBenchmark сервиса.
+ * Запуск: mvn -f auth-client/pom.xml -Pbenchmark test-compile exec:exec -Djmh.args="LocalVerificationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalVerificationBenchmark {
+
+    private static final String KID = "v1";
+    private static final int CACHE_SIZE = 4096;
+
+    @Param({"off", "on"})
+    private String cache;
+
+    @Param({"1024", "65536"})
+    private int tokens;
+
+    private AuthClient client;
+    private String[] authorizations;
+
+    @Setup
+    public void setUp() {
+        client = AuthClient.builder(URI.create("http://localhost:1"))
+                .staticKeys(KID, Map.of(KID, TestTokens.SECRET))
+                .cacheSize("on".equals(cache) ? CACHE_SIZE : 0)
+                .meterRegistry(new SimpleMeterRegistry())
+                .build();
+        authorizations = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            authorizations[i] = "Bearer " + TestTokens.access(KID, TestTokens.SECRET, "user" + i + "@example.com",
+                    TestTokens.inOneHour());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public boolean validate(Cursor cursor) {
+        int index = cursor.next;
+        cursor.next = index + 1 == authorizations.length ? 0 : index + 1;
+        boolean valid = client.validate(authorizations[index]);
+        if (!valid) {
+            throw new IllegalStateException("Token rejected");
+        }
+        return valid;
+    }
+}
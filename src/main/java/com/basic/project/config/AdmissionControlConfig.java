@@ -0,0 +1,34 @@
+package com.basic.project.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Регистрация {@link AdmissionControlFilter} перед цепочкой Spring Security.
+ * Отключается через admission.enabled=false.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            AdmissionControlProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(properties, meterRegistry, objectMapper));
+        registration.addUrlPatterns("/api/auth/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        log.info("Admission control: total limit {}, reserved for validate {}%",
+                properties.getTotalLimit(), Math.round(properties.getPriorityReserve() * 100));
+        return registration;
+    }
+}
@@ -0,0 +1,153 @@
+package com.basic.project.config;
+
+import com.basic.project.exception.AuthException;
+import com.basic.project.exception.ErrorResponseTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ограничение параллельных запросов к AuthController до входа в Spring Security.
+ * У каждого класса эндпоинтов свой {@link AimdLimiter}; сверх того общий предел,
+ * часть которого зарезервирована за /validate, чтобы вход и регистрация не вытесняли проверку токенов.
+ * Лишние запросы сразу получают 503 с Retry-After, не занимая очередь Tomcat.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    /**
+     * Классы эндпоинтов; high - приоритетный класс, которому доступен резерв общего предела
+     */
+    enum EndpointClass {
+        VALIDATE(true),
+        CREDENTIALS(false),
+        REFRESH(false);
+
+        private final boolean high;
+
+        EndpointClass(boolean high) {
+            this.high = high;
+        }
+    }
+
+    private final Map<EndpointClass, AimdLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> shedByLimit = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> shedByPriority = new EnumMap<>(EndpointClass.class);
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+    private final int totalLimit;
+    private final int lowPriorityLimit;
+    private final String retryAfter;
+    private final ErrorResponseTemplate overloaded;
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, MeterRegistry meterRegistry,
+                                  ObjectMapper objectMapper) {
+        this.totalLimit = properties.getTotalLimit();
+        this.lowPriorityLimit = (int) (totalLimit * (1 - properties.getPriorityReserve()));
+        this.retryAfter = String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds()));
+        this.overloaded = ErrorResponseTemplate.of(objectMapper, AuthException.ErrorCode.SERVICE_OVERLOADED);
+
+        limiters.put(EndpointClass.VALIDATE, new AimdLimiter(properties.getValidate()));
+        limiters.put(EndpointClass.CREDENTIALS, new AimdLimiter(properties.getCredentials()));
+        limiters.put(EndpointClass.REFRESH, new AimdLimiter(properties.getRefresh()));
+
+        limiters.forEach((endpointClass, limiter) -> {
+            String tag = endpointClass.name().toLowerCase();
+            Gauge.builder("auth.admission.limit", limiter, AimdLimiter::limit)
+                    .tag("class", tag).description("Текущий предел одновременных запросов").register(meterRegistry);
+            Gauge.builder("auth.admission.inflight", limiter, AimdLimiter::inFlight)
+                    .tag("class", tag).description("Запросы в обработке").register(meterRegistry);
+            shedByLimit.put(endpointClass, Counter.builder("auth.admission.shed")
+                    .tag("class", tag).tag("reason", "limit")
+                    .description("Запросы, отклоненные ограничением").register(meterRegistry));
+            shedByPriority.put(endpointClass, Counter.builder("auth.admission.shed")
+                    .tag("class", tag).tag("reason", "priority")
+                    .description("Запросы, отклоненные ограничением").register(meterRegistry));
+        });
+        Gauge.builder("auth.admission.inflight.total", totalInFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        if (endpointClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        int total = totalInFlight.incrementAndGet();
+        if (total > (endpointClass.high ? totalLimit : lowPriorityLimit)) {
+            totalInFlight.decrementAndGet();
+            shedByPriority.get(endpointClass).increment();
+            shed(response);
+            return;
+        }
+        AimdLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            totalInFlight.decrementAndGet();
+            shedByLimit.get(endpointClass).increment();
+            shed(response);
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        boolean dropped = false;
+        try {
+            chain.doFilter(request, response);
+            dropped = failed(response.getStatus());
+        } finally {
+            limiter.release(System.nanoTime() - startedAt, dropped);
+            totalInFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Отказ обработки, сигнал перегрузки для AIMD. 503 не считается: его возвращают сами механизмы
+     * сброса нагрузки (LoginPipeline, этот фильтр), и повторное снижение предела их бы удвоило.
+     * Исключения тоже не считаются (обрыв соединения клиентом и т.п.); перегрузку выдает задержка.
+     */
+    static boolean failed(int status) {
+        return status >= 500 && status != HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    /**
+     * Класс эндпоинта по пути запроса; {@code null} для запросов вне ограничения
+     */
+    static EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return switch (path) {
+            case "/api/auth/validate" -> EndpointClass.VALIDATE;
+            case "/api/auth/login", "/api/auth/register" -> EndpointClass.CREDENTIALS;
+            case "/api/auth/refresh" -> EndpointClass.REFRESH;
+            default -> null;
+        };
+    }
+
+    AimdLimiter limiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+
+    private void shed(HttpServletResponse response) throws IOException {
+        byte[] body = overloaded.render(System.currentTimeMillis());
+        response.setStatus(overloaded.status());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,63 @@
+package com.basic.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки адаптивного ограничения параллельных запросов к auth API
+ */
+@Data
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionControlProperties {
+
+    /** Включить ограничение */
+    private boolean enabled = true;
+
+    /** Значение Retry-After для отклоненных запросов */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /** Общий предел одновременных запросов всех классов (обычно по числу потоков Tomcat) */
+    private int totalLimit = 200;
+
+    /** Доля общего предела, доступная только /validate */
+    private double priorityReserve = 0.25;
+
+    private Limit validate = new Limit(100, 10, 1000, Duration.ofMillis(50));
+
+    /** /login и /register */
+    private Limit credentials = new Limit(20, 2, 200, Duration.ofSeconds(1));
+
+    private Limit refresh = new Limit(20, 2, 200, Duration.ofMillis(500));
+
+    /**
+     * Параметры AIMD для класса запросов
+     */
+    @Data
+    public static class Limit {
+
+        /** Начальный предел одновременных запросов */
+        private int initialLimit;
+
+        private int minLimit;
+
+        private int maxLimit;
+
+        /** Ответ дольше порога считается признаком перегрузки */
+        private Duration latencyThreshold;
+
+        /** Множитель предела при перегрузке */
+        private double backoffRatio = 0.9;
+
+        public Limit() {
+        }
+
+        Limit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.basic.project.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный предел одновременных запросов по схеме AIMD.
+ * Успешный быстрый ответ, если после него в обработке остается не меньше половины предела,
+ * увеличивает предел на 1; медленный ответ или отказ (5xx, кроме 503) уменьшает его в backoffRatio раз.
+ */
+final class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    AimdLimiter(AdmissionControlProperties.Limit settings) {
+        this.minLimit = Math.max(1, settings.getMinLimit());
+        this.maxLimit = Math.max(minLimit, settings.getMaxLimit());
+        this.latencyThresholdNanos = settings.getLatencyThreshold().toNanos();
+        this.backoffRatio = settings.getBackoffRatio();
+        this.limit = new AtomicInteger(Math.min(maxLimit, Math.max(minLimit, settings.getInitialLimit())));
+    }
+
+    /**
+     * Занять слот; {@code false}, если предел исчерпан
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освободить слот и скорректировать предел по результату запроса
+     */
+    void release(long latencyNanos, boolean dropped) {
+        int remaining = inFlight.decrementAndGet();
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            limit.updateAndGet(value -> Math.max(minLimit, (int) (value * backoffRatio)));
+        } else if (remaining * 2 >= limit.get()) {
+            limit.updateAndGet(value -> Math.min(maxLimit, value + 1));
+        }
+    }
+
+    int limit() {
+        return limit.get();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
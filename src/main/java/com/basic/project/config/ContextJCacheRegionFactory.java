@@ -0,0 +1,40 @@
+package com.basic.project.config;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Фабрика регионов second-level cache со своим CacheManager у каждой фабрики сессий.
+ * Стандартная JCacheRegionFactory берет менеджер у провайдера по hibernate.javax.cache.uri, а провайдер
+ * отдает один менеджер на URI: контексты в одной JVM (тестовые) делили кэш, и закрытие одного из них
+ * закрывало регионы остальным. Конфигурация та же (ehcache.xml), URI менеджера уникальный.
+ */
+public class ContextJCacheRegionFactory extends JCacheRegionFactory {
+
+    @Override
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map<String, Object> properties) {
+        CachingProvider provider = getCachingProvider(properties);
+        URI config = getUri(settings, properties);
+        if (config == null || properties.get(ConfigSettings.CACHE_MANAGER) != null
+                || !(provider instanceof EhcacheCachingProvider ehcache)) {
+            return super.resolveCacheManager(settings, properties);
+        }
+        try {
+            return ehcache.getCacheManager(URI.create("urn:auth-service:l2:" + UUID.randomUUID()),
+                    new XmlConfiguration(config.toURL(), getClassLoader(provider)));
+        } catch (MalformedURLException e) {
+            throw new CacheException("Invalid cache configuration URI " + config, e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.basic.project.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+
+/**
+ * Отдельная цепочка для /api/auth/keys со своей учетной записью auth.keys (не spring.security.user):
+ * эндпоинт отдает секреты HMAC, и получивший их может выпускать токены.
+ * Без auth.keys.password (AUTH_KEYS_PASSWORD_HASH) ни цепочка, ни KeyController не регистрируются.
+ */
+@Configuration
+@ConditionalOnExpression(KeyReaderSecurityConfig.ENABLED)
+public class KeyReaderSecurityConfig {
+
+    public static final String ENABLED = "!'${auth.keys.password:}'.isEmpty()";
+    static final String KEYS_PATH = "/api/auth/keys";
+
+    @Bean
+    @Order(2)
+    public SecurityFilterChain keyReaderFilterChain(HttpSecurity http,
+                                                    PasswordEncoder passwordEncoder,
+                                                    @Value("${auth.keys.username}") String username,
+                                                    @Value("${auth.keys.password}") String passwordHash) throws Exception {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(new InMemoryUserDetailsManager(
+                User.withUsername(username).password(passwordHash).roles("KEY_READER").build()));
+        provider.setPasswordEncoder(passwordEncoder);
+        return http
+                .securityMatcher(PathPatternRequestMatcher.withDefaults().matcher(KEYS_PATH))
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authenticationManager(new ProviderManager(provider))
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("KEY_READER"))
+                .httpBasic(Customizer.withDefaults())
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.basic.project.config;
+
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.entity.UserEntity;
+import com.basic.project.entity.UsernameIndexEntity;
+import com.basic.project.repository.UserCredentials;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Подсказки для native-image (mvn -Pnative package).
+ * AOT не видит типы за ResponseEntity<?>, конструкторное выражение JPQL
+ * и классы, которые jjwt создает по имени через Classes.newInstance и ServiceLoader.
+ * Локальные бакеты bucket4j создаются без рефлексии, регистрируются только их публичные методы
+ * для интроспекции бинов.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    static final List<String> BUCKET4J_TYPES = List.of(
+            "io.github.bucket4j.local.LockFreeBucket",
+            "io.github.bucket4j.local.SynchronizedBucket"
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                AuthDtos.RegisterRequest.class,
+                AuthDtos.LoginRequest.class,
+                AuthDtos.RefreshRequest.class,
+                AuthDtos.TokenResponse.class,
+                AuthDtos.RegisterResponse.class,
+                AuthDtos.LoginResponse.class,
+                AuthDtos.RefreshResponse.class,
+                AuthDtos.ErrorResponse.class);
+
+        hints.reflection().registerType(UserEntity.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.DECLARED_FIELDS);
+        hints.reflection().registerType(UsernameIndexEntity.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.DECLARED_FIELDS);
+        hints.reflection().registerType(UsernameIndexEntity.Key.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.DECLARED_FIELDS);
+        hints.reflection().registerType(UserCredentials.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        for (String type : BUCKET4J_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -32,6 +32,12 @@ public class RateLimitConfig {
     @Value("${rate-limit.refresh.period:1}")
     private int refreshPeriodMinutes;
 
+    @Value("${rate-limit.refresh-attempts.requests:1000}")
+    private int refreshAttemptRequests;
+
+    @Value("${rate-limit.refresh-attempts.period:1}")
+    private int refreshAttemptPeriodMinutes;
+
     @Bean
     public Bucket loginRateLimitBucket() {
         // Настраиваемые лимиты для входа
@@ -61,4 +67,14 @@ public class RateLimitConfig {
                 refreshRequests, refreshPeriodMinutes);
         return Bucket.builder().addLimit(limit).build();
     }
+
+    @Bean
+    public Bucket refreshAttemptRateLimitBucket() {
+        // Общий лимит попыток обновления всех tenant'ов, расходуется до проверки токена
+        Bandwidth limit = Bandwidth.classic(refreshAttemptRequests,
+                Refill.greedy(refreshAttemptRequests, Duration.ofMinutes(refreshAttemptPeriodMinutes)));
+        log.info("Refresh attempt rate limit configured: {} requests per {} minutes",
+                refreshAttemptRequests, refreshAttemptPeriodMinutes);
+        return Bucket.builder().addLimit(limit).build();
+    }
 }
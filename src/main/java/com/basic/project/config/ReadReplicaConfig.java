@@ -0,0 +1,91 @@
+package com.basic.project.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Источник данных с маршрутизацией read-only транзакций на реплики.
+ * Включается через read-replicas.enabled=true; primary берется из spring.datasource.
+ * Чтение сразу после записи не привязано к primary: вход или refresh сразу после регистрации
+ * может попасть на реплику, отстающую до read-replicas.max-lag, и не найти пользователя.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "read-replicas", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    /**
+     * Пул primary с настройками spring.datasource.hikari.*, как в DataSourceAutoConfiguration
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties primaryProperties) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        if (StringUtils.hasText(primaryProperties.getName())) {
+            primary.setPoolName(primaryProperties.getName());
+        }
+        return primary;
+    }
+
+    /**
+     * Пулы реплик; бин, чтобы контекст закрывал их при остановке и обновлении
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaPools replicaPools(DataSourceProperties primaryProperties, ReadReplicaProperties replicaProperties) {
+        return new ReplicaPools(replicaProperties.getNodes().stream()
+                .map(node -> DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .driverClassName(primaryProperties.getDriverClassName())
+                        .url(node.getUrl())
+                        .username(node.getUsername() != null ? node.getUsername() : primaryProperties.getUsername())
+                        .password(node.getPassword() != null ? node.getPassword() : primaryProperties.getPassword())
+                        .build())
+                .toList());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPools replicaPools,
+                                 ReadReplicaProperties replicaProperties) {
+        List<DataSource> replicas = List.copyOf(replicaPools.pools());
+        log.info("Routing read-only transactions to {} replica(s), max lag {}",
+                replicas.size(), replicaProperties.getMaxLag());
+        routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                replicaProperties.getMaxLag(), replicaProperties.getLagQuery());
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Scheduled(initialDelayString = "${read-replicas.check-interval:5000}", fixedDelayString = "${read-replicas.check-interval:5000}")
+    public void checkReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.checkReplicas();
+        }
+    }
+
+    public record ReplicaPools(List<HikariDataSource> pools) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            pools.forEach(HikariDataSource::close);
+        }
+    }
+}
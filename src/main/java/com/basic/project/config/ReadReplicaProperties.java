@@ -0,0 +1,38 @@
+package com.basic.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки реплик для read-only транзакций
+ */
+@Data
+@ConfigurationProperties(prefix = "read-replicas")
+public class ReadReplicaProperties {
+
+    /** Включить маршрутизацию read-only транзакций на реплики */
+    private boolean enabled = false;
+
+    /**
+     * Максимально допустимое отставание реплики. Столько же может не быть видна на реплике
+     * только что записанная строка (например, пользователь сразу после регистрации)
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /** Запрос, возвращающий отставание реплики в секундах */
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private List<Node> nodes = new ArrayList<>();
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,97 @@
+package com.basic.project.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Маршрутизация соединений: read-only транзакции идут на реплики по кругу,
+ * остальные - на primary. Реплики с отставанием больше maxLag или недоступные
+ * исключаются до следующей проверки; если здоровых реплик нет, чтение идет на primary.
+ * Должен оборачиваться в LazyConnectionDataSourceProxy, чтобы соединение бралось
+ * после того, как транзакция отметила себя read-only.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<DataSource> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile int[] healthy;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag, String lagQuery) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int[] available = healthy;
+        if (available.length == 0) {
+            return PRIMARY;
+        }
+        return available[Math.floorMod(next.getAndIncrement(), available.length)];
+    }
+
+    /**
+     * Проверка отставания реплик; вызывается по расписанию
+     */
+    public void checkReplicas() {
+        int[] available = new int[replicas.size()];
+        int count = 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            if (isHealthy(i)) {
+                available[count++] = i;
+            }
+        }
+        int[] previous = healthy;
+        healthy = java.util.Arrays.copyOf(available, count);
+        if (previous == null || previous.length != count) {
+            log.info("Healthy read replicas: {} of {}", count, replicas.size());
+        }
+    }
+
+    private boolean isHealthy(int replica) {
+        try (Connection connection = replicas.get(replica).getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.MAX_VALUE;
+            if (lagSeconds * 1000 > maxLag.toMillis()) {
+                log.warn("Read replica {} lags by {}s, routing reads elsewhere", replica, lagSeconds);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Read replica {} is unavailable: {}", replica, e.getMessage());
+            return false;
+        }
+    }
+}
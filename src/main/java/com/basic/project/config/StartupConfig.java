@@ -0,0 +1,34 @@
+package com.basic.project.config;
+
+import com.basic.project.controller.AuthController;
+import com.basic.project.service.AuthService;
+import com.basic.project.service.JwtKeyFileLoader;
+import com.basic.project.service.JwtService;
+import com.basic.project.service.LoginPipeline;
+import com.basic.project.service.TenantFileLoader;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Бины, которые создаются при старте даже с spring.main.lazy-initialization=true:
+ * путь запроса /validate, /login и /refresh не должен достраивать контекст на первом запросе,
+ * а @Scheduled задачи регистрируются только у созданных бинов
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter hotPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                JwtService.class,
+                AuthService.class,
+                LoginPipeline.class,
+                AuthController.class,
+                JwtKeyFileLoader.class,
+                TenantFileLoader.class,
+                FilterRegistrationBean.class
+        );
+    }
+}
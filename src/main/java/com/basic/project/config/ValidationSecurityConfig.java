@@ -0,0 +1,57 @@
+package com.basic.project.config;
+
+import com.basic.project.service.JwtService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+
+/**
+ * Облегченный путь проверки токена.
+ * Отдельная цепочка Spring Security для /api/auth/validate без CORS, CSRF, сессий, кэша запросов,
+ * анонимной аутентификации и проверки прав: эндпоинт публичный, токен проверяет сам JwtService.
+ * Отключается через auth.validate.dedicated-chain=false (запрос пойдет через общую цепочку).
+ * С auth.validate.direct=true запрос обслуживается фильтром до Spring Security и MVC.
+ */
+@Configuration
+public class ValidationSecurityConfig {
+
+    static final String VALIDATE_PATH = "/api/auth/validate";
+
+    @Bean
+    @Order(1)
+    @ConditionalOnProperty(prefix = "auth.validate", name = "dedicated-chain", havingValue = "true", matchIfMissing = true)
+    public SecurityFilterChain validationFilterChain(HttpSecurity http) throws Exception {
+        return http
+                // Явный матчер: строковый вариант требует HandlerMappingIntrospector, которого нет вне веб-контекста
+                .securityMatcher(PathPatternRequestMatcher.withDefaults().matcher(VALIDATE_PATH))
+                .csrf(AbstractHttpConfigurer::disable)
+                .cors(AbstractHttpConfigurer::disable)
+                .headers(AbstractHttpConfigurer::disable)
+                .sessionManagement(AbstractHttpConfigurer::disable)
+                .securityContext(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .anonymous(AbstractHttpConfigurer::disable)
+                .servletApi(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .exceptionHandling(AbstractHttpConfigurer::disable)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "auth.validate", name = "direct", havingValue = "true")
+    public FilterRegistrationBean<DirectValidateFilter> directValidateFilter(JwtService jwtService) {
+        FilterRegistrationBean<DirectValidateFilter> registration =
+                new FilterRegistrationBean<>(new DirectValidateFilter(jwtService));
+        registration.addUrlPatterns(VALIDATE_PATH);
+        // После admission control, до Spring Security
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+}
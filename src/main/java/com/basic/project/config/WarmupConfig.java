@@ -0,0 +1,28 @@
+package com.basic.project.config;
+
+import com.basic.project.repository.UserRepository;
+import com.basic.project.service.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+
+/**
+ * Регистрация {@link WarmupRunner}. Отключается через warmup.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+    @Bean
+    public WarmupRunner warmupRunner(WarmupProperties properties, JwtService jwtService,
+                                     PasswordEncoder passwordEncoder, UserRepository userRepository,
+                                     DataSource dataSource, MeterRegistry meterRegistry) {
+        return new WarmupRunner(properties, jwtService, passwordEncoder, userRepository, dataSource, meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.basic.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки прогрева перед переходом readiness в ACCEPTING_TRAFFIC
+ */
+@Data
+@ConfigurationProperties(prefix = "warmup")
+public class WarmupProperties {
+
+    /** Включить прогрев */
+    private boolean enabled = true;
+
+    /** Циклов выпуска и проверки access/refresh токенов (JIT для JwtService) */
+    private int jwtIterations = 5000;
+
+    /** Проверок пароля BCrypt; каждая стоит десятки миллисекунд */
+    private int bcryptIterations = 5;
+
+    /** Одновременно открываемых соединений пула; не больше maximum-pool-size */
+    private int connections = 10;
+
+    /** Циклов типичных запросов UserRepository по несуществующим пользователям */
+    private int repositoryIterations = 200;
+
+    /** Пользователей с последними входами, загружаемых в кэш второго уровня (0 - не загружать) */
+    private int hotUsers = 0;
+}
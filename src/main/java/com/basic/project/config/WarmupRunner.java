@@ -0,0 +1,188 @@
+package com.basic.project.config;
+
+import com.basic.project.repository.UserCredentials;
+import com.basic.project.repository.UserRepository;
+import com.basic.project.service.JwtService;
+import com.basic.project.service.VerifiedToken;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Прогрев после старта контекста: JIT для JwtService и BCrypt, соединения пула,
+ * типичные запросы UserRepository, при hot-users - данные недавно входивших пользователей.
+ * ApplicationRunner выполняется до ApplicationReadyEvent, поэтому readiness проба остается
+ * REFUSING_TRAFFIC до конца прогрева. Ошибка фазы только логируется: прогрев не должен мешать старту.
+ */
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    static final String PRINCIPAL = "warmup@warmup.invalid";
+    static final String USERNAME = "warmup-user";
+    private static final long USER_ID = 0L;
+    private static final String PASSWORD = "Warmup-password-1";
+
+    private final WarmupProperties properties;
+    private final JwtService jwtService;
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Report report;
+
+    public WarmupRunner(WarmupProperties properties, JwtService jwtService, PasswordEncoder passwordEncoder,
+                        UserRepository userRepository, DataSource dataSource, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jwtService = jwtService;
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Итог прогрева: длительность фаз, открытые соединения, загруженные пользователи
+     */
+    public record Report(Map<String, Duration> phases, int connections, int hotUsers, Duration total) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        int[] connections = {0};
+        int[] hotUsers = {0};
+
+        phase(phases, "pool", () -> connections[0] = prefillPool());
+        phase(phases, "jwt", this::warmJwt);
+        phase(phases, "bcrypt", this::warmBcrypt);
+        phase(phases, "repository", this::warmRepository);
+        if (properties.getHotUsers() > 0) {
+            phase(phases, "hot-users", () -> hotUsers[0] = preloadHotUsers());
+        }
+
+        Duration total = Duration.ofNanos(System.nanoTime() - started);
+        report = new Report(Collections.unmodifiableMap(phases), connections[0], hotUsers[0], total);
+        log.info("Warm-up finished in {} ms: {}, {} connection(s), {} hot user(s); JVM uptime {} ms",
+                total.toMillis(), phases, connections[0], hotUsers[0],
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    /**
+     * Последний результат прогрева, null до его окончания
+     */
+    public Report report() {
+        return report;
+    }
+
+    private void phase(Map<String, Duration> phases, String name, Runnable body) {
+        long started = System.nanoTime();
+        try {
+            body.run();
+        } catch (RuntimeException e) {
+            log.warn("Warm-up phase {} failed: {}", name, e.toString());
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        phases.put(name, elapsed);
+        Timer.builder("auth.warmup")
+                .description("Длительность фаз прогрева")
+                .tag("phase", name)
+                .register(meterRegistry)
+                .record(elapsed);
+    }
+
+    /**
+     * Одновременное удержание нескольких соединений заставляет пул открыть их до первого запроса
+     */
+    private int prefillPool() {
+        int target = properties.getConnections();
+        List<Connection> opened = new ArrayList<>(target);
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                target = Math.min(target, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+            }
+            for (int i = 0; i < target; i++) {
+                Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                connection.isValid(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Failed to release warm-up connection", e);
+                }
+            }
+        }
+        return opened.size();
+    }
+
+    private void warmJwt() {
+        String subject = jwtService.subjectFor(USER_ID, PRINCIPAL);
+        long ttl = jwtService.accessTtlPolicy().nextTtl();
+        for (int i = 0; i < properties.getJwtIterations(); i++) {
+            String access = jwtService.generateAccessToken(subject, ttl);
+            String refresh = jwtService.generateRefreshToken(subject);
+            if (!jwtService.isValidAccessToken("Bearer " + access, 7)) {
+                throw new IllegalStateException("Freshly issued access token is invalid");
+            }
+            VerifiedToken verified = jwtService.verifyRefreshToken(refresh);
+            if (verified == null) {
+                throw new IllegalStateException("Freshly issued refresh token is invalid");
+            }
+        }
+    }
+
+    private void warmBcrypt() {
+        String hash = passwordEncoder.encode(PASSWORD);
+        for (int i = 0; i < properties.getBcryptIterations(); i++) {
+            passwordEncoder.matches(PASSWORD, hash);
+        }
+    }
+
+    /**
+     * Запросы входа, обновления и регистрации по заведомо отсутствующему пользователю
+     */
+    private void warmRepository() {
+        for (int i = 0; i < properties.getRepositoryIterations(); i++) {
+            userRepository.findCredentialsByPrincipal(PRINCIPAL);
+            userRepository.findCredentialsByPrincipal(USERNAME);
+            userRepository.findCredentialsById(USER_ID);
+            userRepository.existsByEmail(PRINCIPAL);
+            userRepository.existsByUsername(USERNAME);
+        }
+    }
+
+    /**
+     * Данные для входа и обновления токена пользователей с последними входами
+     */
+    private int preloadHotUsers() {
+        List<String> emails = userRepository.findRecentLoginEmails(PageRequest.of(0, properties.getHotUsers()));
+        for (String email : emails) {
+            userRepository.findCredentialsByEmail(email)
+                    .map(UserCredentials::id)
+                    .ifPresent(userRepository::findCredentialsById);
+        }
+        return emails.size();
+    }
+}
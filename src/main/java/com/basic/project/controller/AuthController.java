@@ -2,8 +2,11 @@ package com.basic.project.controller;
 
 
 import com.basic.project.dto.AuthDtos;
-import com.basic.project.exception.AuthException;
+import com.basic.project.jfr.RateLimitEvent;
 import com.basic.project.service.AuthService;
+import com.basic.project.service.JwtService;
+import com.basic.project.service.Tenant;
+import com.basic.project.service.VerifiedToken;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,11 +17,15 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -27,42 +34,45 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class AuthController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+    /** Tenant запроса; без заголовка - tenant по умолчанию */
+    static final String TENANT_HEADER = "X-Tenant-Id";
+
     private final AuthService authService;
+    private final JwtService jwtService;
     private final Bucket loginRateLimitBucket;
     private final Bucket registerRateLimitBucket;
     private final Bucket refreshRateLimitBucket;
+    private final Bucket refreshAttemptRateLimitBucket;
+    private final RateLimitResponses rateLimitResponses;
+    private final Map<String, AtomicLong> throttled = new ConcurrentHashMap<>();
+
+    @Value("${auth.errors.log-every:100}")
+    private long logEvery = 100;
 
     @Operation(summary = "Регистрация нового пользователя")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Пользователь успешно зарегистрирован"),
             @ApiResponse(responseCode = "400", description = "Некорректные данные"),
             @ApiResponse(responseCode = "409", description = "Пользователь уже существует"),
-            @ApiResponse(responseCode = "429", description = "Слишком много запросов")
+            @ApiResponse(responseCode = "429", description = "Слишком много запросов"),
+            @ApiResponse(responseCode = "503", description = "Сервис перегружен")
     })
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody AuthDtos.RegisterRequest registerRequest, 
+    public ResponseEntity<?> register(@Valid @RequestBody AuthDtos.RegisterRequest registerRequest,
+                                     @RequestHeader(value = TENANT_HEADER, required = false) String tenantId,
                                      HttpServletRequest request) {
+        Tenant tenant = jwtService.tenants().resolve(tenantId);
         // Rate limiting для регистрации
-        ConsumptionProbe probe = registerRateLimitBucket.tryConsumeAndReturnRemaining(1);
+        Bucket bucket = tenant.isDefault() ? registerRateLimitBucket : tenant.registerBucket();
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        RateLimitEvent.emit("register", probe.isConsumed(), probe.getRemainingTokens(), probe.getNanosToWaitForRefill());
         if (!probe.isConsumed()) {
-            log.warn("Rate limit exceeded for registration from IP: {}", getClientIpAddress(request));
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                    .body(new AuthDtos.ErrorResponse(
-                            "RATE_LIMIT_EXCEEDED",
-                            "Слишком много попыток регистрации. Попробуйте позже.",
-                            System.currentTimeMillis(),
-                            HttpStatus.TOO_MANY_REQUESTS.value()
-                    ));
+            logThrottled("registration", request);
+            return rateLimitResponses.register(probe);
         }
 
-        try {
-            AuthDtos.TokenResponse tokenResponse = authService.register(registerRequest);
-            return ResponseEntity.ok(tokenResponse);
-        }
-        catch (AuthException e) {
-            log.warn(e.getMessage());
-            throw e;
-        }
+        return ResponseEntity.ok(authService.register(tenant, registerRequest));
     }
 
     @Operation(summary = "Вход в систему")
@@ -70,32 +80,24 @@ public class AuthController {
             @ApiResponse(responseCode = "200", description = "Успешный вход"),
             @ApiResponse(responseCode = "400", description = "Некорректные данные"),
             @ApiResponse(responseCode = "401", description = "Неверные учетные данные"),
-            @ApiResponse(responseCode = "429", description = "Слишком много запросов")
+            @ApiResponse(responseCode = "429", description = "Слишком много запросов"),
+            @ApiResponse(responseCode = "503", description = "Сервис перегружен")
     })
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody AuthDtos.LoginRequest loginRequest, 
+    public ResponseEntity<?> login(@Valid @RequestBody AuthDtos.LoginRequest loginRequest,
+                                  @RequestHeader(value = TENANT_HEADER, required = false) String tenantId,
                                   HttpServletRequest request) {
+        Tenant tenant = jwtService.tenants().resolve(tenantId);
         // Rate limiting для входа
-        ConsumptionProbe probe = loginRateLimitBucket.tryConsumeAndReturnRemaining(1);
+        Bucket bucket = tenant.isDefault() ? loginRateLimitBucket : tenant.loginBucket();
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        RateLimitEvent.emit("login", probe.isConsumed(), probe.getRemainingTokens(), probe.getNanosToWaitForRefill());
         if (!probe.isConsumed()) {
-            log.warn("Rate limit exceeded for login from IP: {}", getClientIpAddress(request));
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                    .body(new AuthDtos.ErrorResponse(
-                            "RATE_LIMIT_EXCEEDED",
-                            "Слишком много попыток входа. Попробуйте позже.",
-                            System.currentTimeMillis(),
-                            HttpStatus.TOO_MANY_REQUESTS.value()
-                    ));
+            logThrottled("login", request);
+            return rateLimitResponses.login(probe);
         }
 
-        try {
-            AuthDtos.TokenResponse tokenResponse = authService.login(loginRequest);
-            return ResponseEntity.ok(tokenResponse);
-        }
-        catch (AuthException e) {
-            log.warn(e.getMessage());
-            throw e;
-        }
+        return ResponseEntity.ok(authService.login(tenant, loginRequest));
     }
 
 
@@ -104,46 +106,47 @@ public class AuthController {
             @ApiResponse(responseCode = "200", description = "Токен успешно обновлен"),
             @ApiResponse(responseCode = "400", description = "Некорректный refresh токен"),
             @ApiResponse(responseCode = "401", description = "Недействительный refresh токен"),
-            @ApiResponse(responseCode = "429", description = "Слишком много запросов")
+            @ApiResponse(responseCode = "429", description = "Слишком много запросов"),
+            @ApiResponse(responseCode = "503", description = "Сервис перегружен")
     })
     @PostMapping("/refresh")
-    public ResponseEntity<?> refresh(@Valid @RequestBody AuthDtos.RefreshRequest refreshRequest, 
+    public ResponseEntity<?> refresh(@Valid @RequestBody AuthDtos.RefreshRequest refreshRequest,
                                    HttpServletRequest request) {
-        // Rate limiting для обновления токена
-        ConsumptionProbe probe = refreshRateLimitBucket.tryConsumeAndReturnRemaining(1);
-        if (!probe.isConsumed()) {
-            log.warn("Rate limit exceeded for token refresh from IP: {}", getClientIpAddress(request));
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                    .body(new AuthDtos.ErrorResponse(
-                            "RATE_LIMIT_EXCEEDED",
-                            "Слишком много попыток обновления токена. Попробуйте позже.",
-                            System.currentTimeMillis(),
-                            HttpStatus.TOO_MANY_REQUESTS.value()
-                    ));
+        // Общий лимит попыток расходуется до проверки подписи: поток недействительных токенов упирается в него,
+        // не вычисляя HMAC на каждый запрос. Цена - пока он исчерпан, 429 получают и настоящие клиенты всех tenant'ов
+        ConsumptionProbe attempt = refreshAttemptRateLimitBucket.tryConsumeAndReturnRemaining(1);
+        if (!attempt.isConsumed()) {
+            RateLimitEvent.emit("refresh-attempts", false, attempt.getRemainingTokens(), attempt.getNanosToWaitForRefill());
+            logThrottled("token refresh", request);
+            return rateLimitResponses.refresh(attempt);
         }
 
-        log.info("Обновление токена для пользователя");
-        try {
-            AuthDtos.TokenResponse response = authService.refresh(refreshRequest);
-            log.info("Токен успешно обновлен");
-            return ResponseEntity.ok(response);
-        } catch (AuthException e) {
-            log.warn("Ошибка при обновлении токена: {}", e.getMessage());
-            throw e;
+        // Лимит, пользователь и ключи - tenant'а из claim tid проверенного токена, заголовок X-Tenant-Id не учитывается;
+        // недействительный токен расходует лимит tenant'а по умолчанию
+        VerifiedToken token = jwtService.verifyRefreshToken(refreshRequest.getRefreshToken());
+        Tenant tenant = token != null ? jwtService.tenants().find(token.tenant()) : null;
+        Bucket bucket = tenant == null || tenant.isDefault() ? refreshRateLimitBucket : tenant.refreshBucket();
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        RateLimitEvent.emit("refresh", probe.isConsumed(), probe.getRemainingTokens(), probe.getNanosToWaitForRefill());
+        if (!probe.isConsumed()) {
+            logThrottled("token refresh", request);
+            return rateLimitResponses.refresh(probe);
         }
+
+        return ResponseEntity.ok(authService.refresh(token));
     }
 
     @Operation(summary = "Валидация токена")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Токен валиден"),
-            @ApiResponse(responseCode = "401", description = "Токен недействителен")
+            @ApiResponse(responseCode = "401", description = "Токен недействителен"),
+            @ApiResponse(responseCode = "503", description = "Сервис перегружен")
     })
     @PostMapping("/validate")
     public ResponseEntity<Boolean> validateToken(@RequestHeader("Authorization") String authorization) {
         log.debug("Валидация токена");
         try {
-            String token = authorization.replace("Bearer ", "");
-            boolean isValid = authService.validateToken(token);
+            boolean isValid = authService.validateToken(authorization, bearerTokenOffset(authorization));
             return ResponseEntity.ok(isValid);
         } catch (Exception e) {
             log.warn("Ошибка при валидации токена: {}", e.getMessage());
@@ -151,29 +154,21 @@ public class AuthController {
         }
     }
 
-    @ExceptionHandler(AuthException.class)
-    public ResponseEntity<AuthDtos.ErrorResponse> handleAuthException(AuthException e) {
-        log.error("Ошибка аутентификации: {}", e.getMessage());
-        AuthDtos.ErrorResponse errorResponse = new AuthDtos.ErrorResponse(
-                e.getErrorCode(),
-                e.getMessage(),
-                System.currentTimeMillis(),
-                e.getHttpStatus().value()
-        );
-        return ResponseEntity.status(e.getHttpStatus()).body(errorResponse);
+    /**
+     * Позиция начала токена в заголовке Authorization (без копирования строки)
+     */
+    private static int bearerTokenOffset(String authorization) {
+        return authorization.startsWith(BEARER_PREFIX) ? BEARER_PREFIX.length() : 0;
     }
 
-
-    @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<AuthDtos.ErrorResponse> handleIllegalArgumentException(IllegalArgumentException e) {
-        log.error("Некорректные данные: {}", e.getMessage());
-        AuthDtos.ErrorResponse errorResponse = new AuthDtos.ErrorResponse(
-                "INVALID_INPUT",
-                e.getMessage(),
-                System.currentTimeMillis(),
-                HttpStatus.BAD_REQUEST.value()
-        );
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    /**
+     * Первый и далее каждый logEvery-й отказ rate limiting эндпоинта (как ошибки в GlobalExceptionHandler)
+     */
+    private void logThrottled(String endpoint, HttpServletRequest request) {
+        long count = throttled.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+        if (logEvery <= 1 || count % logEvery == 1) {
+            log.warn("Rate limit exceeded for {} from IP: {} (total {})", endpoint, getClientIpAddress(request), count);
+        }
     }
 
     /**
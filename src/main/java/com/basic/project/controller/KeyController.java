@@ -0,0 +1,55 @@
+package com.basic.project.controller;
+
+import com.basic.project.config.KeyReaderSecurityConfig;
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.service.JwtKeyRing;
+import com.basic.project.service.JwtService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Раздача ключей access токенов для клиентской библиотеки auth-client.
+ * Ключи симметричные (HMAC): получивший секрет может и выпускать токены. Поэтому эндпоинт
+ * регистрируется только с отдельной учетной записью auth.keys и закрыт своей цепочкой
+ * (см. KeyReaderSecurityConfig). Параметр tenant выбирает ключи tenant'а.
+ */
+@RestController
+@ConditionalOnExpression(KeyReaderSecurityConfig.ENABLED)
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@Tag(name = "Authentication", description = "API для аутентификации и авторизации")
+public class KeyController {
+
+    private final JwtService jwtService;
+
+    @Operation(summary = "Ключи проверки access токенов")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Активный kid и ключи, принимаемые при проверке"),
+            @ApiResponse(responseCode = "400", description = "Неизвестный tenant"),
+            @ApiResponse(responseCode = "401", description = "Нет учетных данных httpBasic auth.keys")
+    })
+    @GetMapping("/keys")
+    public ResponseEntity<AuthDtos.KeySetResponse> keys(@RequestParam(required = false) String tenant) {
+        JwtKeyRing keyRing = jwtService.tenants().resolve(tenant).accessKeys();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        List<AuthDtos.KeyMaterial> keys = keyRing.verifyingKeys().stream()
+                .map(key -> new AuthDtos.KeyMaterial(key.kid(), encoder.encodeToString(key.key().getEncoded())))
+                .toList();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(new AuthDtos.KeySetResponse(keyRing.active().kid(), keys));
+    }
+}
@@ -0,0 +1,57 @@
+package com.basic.project.controller;
+
+import com.basic.project.exception.ErrorResponseTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.ConsumptionProbe;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Готовые ответы 429 для эндпоинтов с rate limiting.
+ * Тело берется из {@link ErrorResponseTemplate}, заголовки Retry-After и X-RateLimit-Remaining - из probe bucket4j.
+ */
+@Component
+public class RateLimitResponses {
+
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final ErrorResponseTemplate login;
+    private final ErrorResponseTemplate register;
+    private final ErrorResponseTemplate refresh;
+
+    public RateLimitResponses(ObjectMapper objectMapper) {
+        this.login = template(objectMapper, "Слишком много попыток входа. Попробуйте позже.");
+        this.register = template(objectMapper, "Слишком много попыток регистрации. Попробуйте позже.");
+        this.refresh = template(objectMapper, "Слишком много попыток обновления токена. Попробуйте позже.");
+    }
+
+    ResponseEntity<byte[]> login(ConsumptionProbe probe) {
+        return reject(login, probe);
+    }
+
+    ResponseEntity<byte[]> register(ConsumptionProbe probe) {
+        return reject(register, probe);
+    }
+
+    ResponseEntity<byte[]> refresh(ConsumptionProbe probe) {
+        return reject(refresh, probe);
+    }
+
+    private static ResponseEntity<byte[]> reject(ErrorResponseTemplate template, ConsumptionProbe probe) {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill() + 999_999_999L));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                .header(REMAINING_HEADER, Long.toString(probe.getRemainingTokens()))
+                .body(template.render(System.currentTimeMillis()));
+    }
+
+    private static ErrorResponseTemplate template(ObjectMapper objectMapper, String message) {
+        return new ErrorResponseTemplate(objectMapper, "RATE_LIMIT_EXCEEDED", message, HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.*;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 
 public class AuthDtos {
@@ -82,11 +83,19 @@ public class AuthDtos {
         @Schema(description = "Время жизни токена в секундах")
         private Long expiresIn;
 
+        @Schema(description = "Рекомендуемое время обновления токена в секундах")
+        private Long refreshAfter;
+
         public TokenResponse(Long id, String accessToken, String refreshToken, Long expiresIn) {
+            this(id, accessToken, refreshToken, expiresIn, expiresIn);
+        }
+
+        public TokenResponse(Long id, String accessToken, String refreshToken, Long expiresIn, Long refreshAfter) {
             this.id = id;
             this.accessToken = accessToken;
             this.refreshToken = refreshToken;
             this.expiresIn = expiresIn;
+            this.refreshAfter = refreshAfter;
         }
     }
 
@@ -178,6 +187,38 @@ public class AuthDtos {
         }
     }
 
+    @Data
+    @Schema(description = "Ключи проверки access токенов для локальной валидации в сервисах-потребителях")
+    public static class KeySetResponse {
+
+        @Schema(description = "kid ключа, которым подписываются новые токены")
+        private String activeKid;
+
+        @Schema(description = "Ключи, принимаемые при проверке подписи")
+        private List<KeyMaterial> keys;
+
+        public KeySetResponse(String activeKid, List<KeyMaterial> keys) {
+            this.activeKid = activeKid;
+            this.keys = keys;
+        }
+    }
+
+    @Data
+    @Schema(description = "Секрет HMAC ключа")
+    public static class KeyMaterial {
+
+        @Schema(description = "Идентификатор ключа (заголовок kid)")
+        private String kid;
+
+        @Schema(description = "Секрет ключа в base64url")
+        private String secret;
+
+        public KeyMaterial(String kid, String secret) {
+            this.kid = kid;
+            this.secret = secret;
+        }
+    }
+
     @Data
     @Schema(description = "Ответ с ошибкой")
     public static class ErrorResponse {
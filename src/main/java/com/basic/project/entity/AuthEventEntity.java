@@ -0,0 +1,32 @@
+package com.basic.project.entity;
+
+import com.basic.project.service.AuthEventType;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись журнала событий аутентификации.
+ * Пишется пакетами через JDBC (AuthEventWriter), сущность описывает схему таблицы.
+ */
+@Data
+@Entity
+@Table(name = "auth_events", indexes = @Index(name = "idx_auth_events_user", columnList = "user_id, created_at"))
+public class AuthEventEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private AuthEventType type;
+
+    private String principal;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
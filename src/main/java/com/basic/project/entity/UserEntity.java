@@ -2,28 +2,57 @@ package com.basic.project.entity;
 
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
+/**
+ * Пользователь tenant'а. Ключ поиска - (tenant_id, email_normalized), ключ партиционирования - email_normalized
+ * (профиль partitioned, db/partitioned-schema.sql); уникальность username в tenant'е обеспечивается
+ * таблицей {@link UsernameIndexEntity}.
+ */
 @Data
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(
+        name = "uk_users_tenant_email", columnNames = {"tenant_id", "email_normalized"}))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class UserEntity {
+
+    /** Tenant пользователей, зарегистрированных без X-Tenant-Id */
+    public static final String DEFAULT_TENANT = "default";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
     @Column(nullable = false)
     private String password;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
+    @NaturalId(mutable = true)
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId = DEFAULT_TENANT;
+
+    // Выводится из email в setEmail
+    @NaturalId(mutable = true)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "email_normalized", nullable = false)
+    private String emailNormalized;
+
     private String phone;
 
     @Column(nullable = false)
@@ -35,6 +64,25 @@ public class UserEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Обновляются асинхронно из журнала событий (AuthEventWriter)
+    @Column(name = "last_login_at")
+    private LocalDateTime lastLoginAt;
+
+    @Column(name = "failed_login_attempts", nullable = false)
+    private int failedLoginAttempts;
+
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailNormalized = normalizeEmail(email);
+    }
+
+    /**
+     * Email в форме для поиска и уникальности: без пробелов по краям, в нижнем регистре
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
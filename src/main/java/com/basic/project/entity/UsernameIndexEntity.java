@@ -0,0 +1,71 @@
+package com.basic.project.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+import java.util.Locale;
+
+/**
+ * Индекс (tenant, username) -> email_normalized для входа по имени пользователя.
+ * Таблица users партиционирована по email_normalized, поэтому уникальность username в tenant'е по всем партициям
+ * держит первичный ключ этой таблицы, а вход по username находит партицию по email_normalized.
+ * Поддерживается в UserRepositoryCustomImpl.save, удаляется вместе с пользователем (ON DELETE CASCADE).
+ */
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "username_index", indexes = @Index(name = "idx_username_index_user", columnList = "user_id"))
+@IdClass(UsernameIndexEntity.Key.class)
+public class UsernameIndexEntity {
+
+    @Id
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @Id
+    @Column(name = "username_normalized")
+    private String usernameNormalized;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private UserEntity user;
+
+    @Column(name = "email_normalized", nullable = false)
+    private String emailNormalized;
+
+    public UsernameIndexEntity(UserEntity user) {
+        this.tenantId = user.getTenantId();
+        this.usernameNormalized = normalizeUsername(user.getUsername());
+        this.user = user;
+        this.emailNormalized = user.getEmailNormalized();
+    }
+
+    /**
+     * Username в форме для поиска и уникальности (вход по username регистронезависимый)
+     */
+    public static String normalizeUsername(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Первичный ключ: tenant и нормализованный username
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String tenantId;
+        private String usernameNormalized;
+    }
+}
@@ -4,28 +4,39 @@ package com.basic.project.exception;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
+/**
+ * Бизнес-ошибка аутентификации.
+ * Бросается на каждый неверный вход или токен, поэтому создается без stack trace:
+ * место ошибки однозначно определяется кодом, а заполнение стека было бы основной стоимостью отказа.
+ */
 @Getter
 public class AuthException extends RuntimeException {
 
     private final String errorCode;
     private final HttpStatus httpStatus;
 
+    /** Код с фиксированным сообщением; {@code null}, если сообщение сформировано на месте */
+    private final ErrorCode code;
+
     public AuthException(ErrorCode errorCode) {
-        super(errorCode.getMessage());
+        super(errorCode.getMessage(), null, false, false);
         this.errorCode = errorCode.name();
         this.httpStatus = errorCode.getStatus();
+        this.code = errorCode;
     }
 
     public AuthException(String message, String errorCode, HttpStatus httpStatus) {
-        super(message);
+        super(message, null, false, false);
         this.errorCode = errorCode;
         this.httpStatus = httpStatus;
+        this.code = null;
     }
 
     public AuthException(String message, String errorCode, HttpStatus httpStatus, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
         this.errorCode = errorCode;
         this.httpStatus = httpStatus;
+        this.code = null;
     }
 
     public static AuthException userAlreadyExists(String email) {
@@ -45,19 +56,11 @@ public class AuthException extends RuntimeException {
     }
 
     public static AuthException invalidCredentials() {
-        return new AuthException(
-                "Неверные учетные данные",
-                "INVALID_CREDENTIALS",
-                HttpStatus.UNAUTHORIZED
-        );
+        return new AuthException(ErrorCode.INVALID_CREDENTIALS);
     }
 
     public static AuthException invalidRefreshToken() {
-        return new AuthException(
-                "Недействительный refresh токен",
-                "INVALID_REFRESH_TOKEN",
-                HttpStatus.UNAUTHORIZED
-        );
+        return new AuthException(ErrorCode.INVALID_REFRESH_TOKEN);
     }
 
     public static AuthException userNotFound(String identifier) {
@@ -69,10 +72,18 @@ public class AuthException extends RuntimeException {
     }
 
     public static AuthException userDisabled() {
+        return new AuthException(ErrorCode.USER_DISABLED);
+    }
+
+    public static AuthException serviceOverloaded() {
+        return new AuthException(ErrorCode.SERVICE_OVERLOADED);
+    }
+
+    public static AuthException unknownTenant(String tenant) {
         return new AuthException(
-                "Пользователь отключен",
-                "USER_DISABLED",
-                HttpStatus.FORBIDDEN
+                "Неизвестный tenant: " + tenant,
+                "UNKNOWN_TENANT",
+                HttpStatus.BAD_REQUEST
         );
     }
 
@@ -93,7 +104,8 @@ public class AuthException extends RuntimeException {
         USER_DISABLED("Пользователь отключен", HttpStatus.FORBIDDEN),
         INVALID_INPUT("Некорректные данные", HttpStatus.BAD_REQUEST),
         TOKEN_EXPIRED("Токен истек", HttpStatus.UNAUTHORIZED),
-        INSUFFICIENT_PERMISSIONS("Недостаточно прав", HttpStatus.FORBIDDEN);
+        INSUFFICIENT_PERMISSIONS("Недостаточно прав", HttpStatus.FORBIDDEN),
+        SERVICE_OVERLOADED("Сервис перегружен, попробуйте позже", HttpStatus.SERVICE_UNAVAILABLE);
 
         private final String message;
         private final HttpStatus status;
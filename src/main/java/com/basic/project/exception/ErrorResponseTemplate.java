@@ -0,0 +1,85 @@
+package com.basic.project.exception;
+
+import com.basic.project.dto.AuthDtos;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Заранее сериализованный {@link AuthDtos.ErrorResponse} с фиксированными кодом, сообщением и статусом.
+ * JSON строится Jackson один раз с меткой вместо timestamp и делится по ней на префикс и суффикс,
+ * поэтому ответ совпадает с обычной сериализацией, а на запрос остается только вписать время.
+ */
+public final class ErrorResponseTemplate {
+
+    private static final long TIMESTAMP_MARKER = 7_913_282_644_071_993_307L;
+
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private final int status;
+
+    public ErrorResponseTemplate(ObjectMapper objectMapper, String errorCode, String message, int status) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(new AuthDtos.ErrorResponse(errorCode, message, TIMESTAMP_MARKER, status));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize error response " + errorCode, e);
+        }
+        byte[] marker = Long.toString(TIMESTAMP_MARKER).getBytes(StandardCharsets.US_ASCII);
+        int at = indexOf(json, marker);
+        if (at < 0) {
+            throw new IllegalStateException("Error response " + errorCode + " has no timestamp field");
+        }
+        this.prefix = Arrays.copyOfRange(json, 0, at);
+        this.suffix = Arrays.copyOfRange(json, at + marker.length, json.length);
+        this.status = status;
+    }
+
+    public static ErrorResponseTemplate of(ObjectMapper objectMapper, AuthException.ErrorCode code) {
+        return new ErrorResponseTemplate(objectMapper, code.name(), code.getMessage(), code.getStatus().value());
+    }
+
+    public int status() {
+        return status;
+    }
+
+    /**
+     * Тело ответа с заданным временем в миллисекундах
+     */
+    public byte[] render(long timestamp) {
+        int digits = digits(timestamp);
+        byte[] body = new byte[prefix.length + digits + suffix.length];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        long value = timestamp;
+        for (int i = prefix.length + digits - 1; i >= prefix.length; i--) {
+            body[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        System.arraycopy(suffix, 0, body, prefix.length + digits, suffix.length);
+        return body;
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static int indexOf(byte[] source, byte[] target) {
+        outer:
+        for (int i = 0; i <= source.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (source[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
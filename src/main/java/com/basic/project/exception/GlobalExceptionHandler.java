@@ -0,0 +1,76 @@
+package com.basic.project.exception;
+
+import com.basic.project.dto.AuthDtos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Единая обработка ошибок API.
+ * Ответы для кодов с фиксированным сообщением берутся из заранее сериализованных шаблонов,
+ * а в лог попадает только каждая N-я ошибка одного кода (auth.errors.log-every), с числом случаев с прошлой записи.
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private final Map<AuthException.ErrorCode, ErrorResponseTemplate> templates =
+            new EnumMap<>(AuthException.ErrorCode.class);
+    private final Map<String, AtomicLong> occurrences = new ConcurrentHashMap<>();
+    private final long logEvery;
+
+    public GlobalExceptionHandler(ObjectMapper objectMapper, @Value("${auth.errors.log-every:100}") long logEvery) {
+        for (AuthException.ErrorCode code : AuthException.ErrorCode.values()) {
+            templates.put(code, ErrorResponseTemplate.of(objectMapper, code));
+        }
+        this.logEvery = Math.max(1, logEvery);
+    }
+
+    @ExceptionHandler(AuthException.class)
+    public ResponseEntity<?> handleAuthException(AuthException e) {
+        logSampled(e.getErrorCode(), e.getMessage());
+        if (e.getCode() != null) {
+            ErrorResponseTemplate template = templates.get(e.getCode());
+            return ResponseEntity.status(template.status())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(template.render(System.currentTimeMillis()));
+        }
+        return ResponseEntity.status(e.getHttpStatus()).body(new AuthDtos.ErrorResponse(
+                e.getErrorCode(),
+                e.getMessage(),
+                System.currentTimeMillis(),
+                e.getHttpStatus().value()
+        ));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<AuthDtos.ErrorResponse> handleIllegalArgumentException(IllegalArgumentException e) {
+        logSampled("INVALID_INPUT", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new AuthDtos.ErrorResponse(
+                "INVALID_INPUT",
+                e.getMessage(),
+                System.currentTimeMillis(),
+                HttpStatus.BAD_REQUEST.value()
+        ));
+    }
+
+    /**
+     * Первая и далее каждая logEvery-я ошибка кода
+     */
+    private void logSampled(String errorCode, String message) {
+        long count = occurrences.computeIfAbsent(errorCode, key -> new AtomicLong()).incrementAndGet();
+        if (count % logEvery == 1 || logEvery == 1) {
+            log.warn("Ошибка {}: {} (всего {})", errorCode, message, count);
+        }
+    }
+}
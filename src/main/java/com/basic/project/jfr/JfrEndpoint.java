@@ -0,0 +1,140 @@
+package com.basic.project.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.*;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Запись JFR по запросу: /actuator/jfr (доступ только с httpBasic, см. SecurityConfig).
+ * GET - состояние, POST {"settings": "profile", "maxAge": "10m"} - старт записи,
+ * GET /dump - снимок записи в .jfr, DELETE - остановка.
+ * События сервиса (Token, PasswordHash, Repository, RateLimit) включаются всегда,
+ * остальные - по настройкам JFR default или profile (другие имена отклоняются) без событий
+ * с окружением процесса (SENSITIVE_EVENTS).
+ * Регистрируется только при заданном пароле spring.security.user (ACTUATOR_PASSWORD_HASH).
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("!'${spring.security.user.password:}'.isEmpty()")
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    static final String RECORDING_NAME = "auth-service";
+    static final List<Class<? extends jdk.jfr.Event>> EVENTS =
+            List.of(TokenEvent.class, PasswordHashEvent.class, RepositoryEvent.class, RateLimitEvent.class);
+    static final Set<String> SETTINGS = Set.of("default", "profile");
+    // Переменные окружения, системные свойства и аргументы командной строки содержат секреты JWT и пароль БД
+    static final List<String> SENSITIVE_EVENTS = List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty",
+            "jdk.InitialSecurityProperty", "jdk.JVMInformation", "jdk.SystemProcess");
+
+    private Recording recording;
+    private Path dumpFile;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording == null ? "NEW" : recording.getState().name());
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("maxAge", recording.getMaxAge());
+            status.put("size", recording.getSize());
+        }
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable String settings,
+                                                                       @Nullable Duration maxAge) {
+        String name = settings != null ? settings : "default";
+        if (!SETTINGS.contains(name)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status());
+        }
+        closeRecording();
+        recording = new Recording(settings(name));
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge != null ? maxAge : Duration.ofMinutes(10));
+        EVENTS.forEach(recording::enable);
+        recording.start();
+        log.info("JFR recording started, settings {}, max age {}", name, recording.getMaxAge());
+        return new WebEndpointResponse<>(status());
+    }
+
+    @ReadOperation
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String action) {
+        if (!"dump".equals(action)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        try {
+            if (dumpFile == null) {
+                dumpFile = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+                dumpFile.toFile().deleteOnExit();
+            }
+            recording.dump(dumpFile);
+            return new WebEndpointResponse<>(new FileSystemResource(dumpFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to dump JFR recording", e);
+        }
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("JFR recording stopped");
+        }
+        Map<String, Object> status = status();
+        closeRecording();
+        return status;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        closeRecording();
+    }
+
+    private static Map<String, String> settings(String name) {
+        Map<String, String> settings;
+        try {
+            settings = new HashMap<>(Configuration.getConfiguration(name).getSettings());
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Failed to read JFR settings " + name, e);
+        }
+        SENSITIVE_EVENTS.forEach(event -> settings.put(event + "#enabled", "false"));
+        return settings;
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
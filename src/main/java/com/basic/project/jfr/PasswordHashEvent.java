@@ -0,0 +1,28 @@
+package com.basic.project.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Хэширование или проверка пароля (BCrypt) при регистрации и входе
+ */
+@Name("com.basic.project.PasswordHash")
+@Label("Password Hash")
+@Category({"Auth Service", "Password"})
+@StackTrace(false)
+public final class PasswordHashEvent extends Event {
+
+    @Label("Operation")
+    @Description("encode или matches")
+    private String operation;
+
+    @Label("Matched")
+    private boolean matched;
+
+    public void end(String operation, boolean matched) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.matched = matched;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.basic.project.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Решение rate limiter в AuthController
+ */
+@Name("com.basic.project.RateLimit")
+@Label("Rate Limit Decision")
+@Category({"Auth Service", "Rate Limit"})
+@StackTrace(false)
+public final class RateLimitEvent extends Event {
+
+    @Label("Endpoint")
+    private String endpoint;
+
+    @Label("Consumed")
+    private boolean consumed;
+
+    @Label("Remaining Tokens")
+    private long remaining;
+
+    @Label("Wait For Refill")
+    @Timespan(Timespan.NANOSECONDS)
+    private long waitForRefill;
+
+    public static void emit(String endpoint, boolean consumed, long remaining, long waitForRefillNanos) {
+        RateLimitEvent event = new RateLimitEvent();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.consumed = consumed;
+            event.remaining = remaining;
+            event.waitForRefill = waitForRefillNanos;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.basic.project.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Вызов метода Spring Data репозитория, см. {@link RepositoryEventInterceptor}
+ */
+@Name("com.basic.project.Repository")
+@Label("Repository Call")
+@Category({"Auth Service", "Repository"})
+@StackTrace(false)
+public final class RepositoryEvent extends Event {
+
+    @Label("Repository")
+    private String repository;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Failed")
+    private boolean failed;
+
+    public void end(String repository, String method, boolean failed) {
+        if (shouldCommit()) {
+            this.repository = repository;
+            this.method = method;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.basic.project.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Подпись или проверка токена в JwtService.
+ * Без активной записи JFR begin/commit пустые, а объект события убирается escape-анализом.
+ */
+@Name("com.basic.project.Token")
+@Label("Token")
+@Category({"Auth Service", "Token"})
+@StackTrace(false)
+public final class TokenEvent extends Event {
+
+    @Label("Operation")
+    @Description("sign, verify или parse (jjwt)")
+    private String operation;
+
+    @Label("Token Type")
+    private String tokenType;
+
+    @Label("Format")
+    @Description("Формат выпущенного токена: STANDARD или COMPACT")
+    private String format;
+
+    @Label("Verdict")
+    private String verdict;
+
+    public void end(String operation, String tokenType, String format, String verdict) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.tokenType = tokenType;
+            this.format = format;
+            this.verdict = verdict;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.basic.project.repository;
+
+import com.basic.project.entity.UserEntity;
+
+/**
+ * Данные пользователя, нужные для входа и обновления токена.
+ * Читается конструкторным выражением, поэтому не попадает в persistence context.
+ */
+public record UserCredentials(Long id, String email, String password, boolean enabled, String tenantId) {
+
+    /**
+     * Пользователь tenant'а по умолчанию
+     */
+    public UserCredentials(Long id, String email, String password, boolean enabled) {
+        this(id, email, password, enabled, UserEntity.DEFAULT_TENANT);
+    }
+}
@@ -1,28 +1,142 @@
 package com.basic.project.repository;
 
 import com.basic.project.entity.UserEntity;
+import com.basic.project.entity.UsernameIndexEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 
 @Repository
-public interface UserRepository  extends JpaRepository<UserEntity, Long> {
+public interface UserRepository  extends JpaRepository<UserEntity, Long>, UserRepositoryCustom {
 
-    Optional<UserEntity> findByUsername(String username);
+    // Реализация в UserRepositoryCustomImpl (вместе с username_index)
+    @Override
+    <S extends UserEntity> S save(S user);
 
-    Optional<UserEntity> findByEmail(String email);
+    @Override
+    <S extends UserEntity> List<S> saveAll(Iterable<S> users);
 
-        Optional<UserEntity> findByEmailIgnoreCaseOrUsernameIgnoreCase(String email, String username);
+    default Optional<UserEntity> findByUsername(String username) {
+        return findByUsername(UserEntity.DEFAULT_TENANT, username);
+    }
 
-    boolean existsByUsername(String username);
-    boolean existsByEmail(String email);
+    /**
+     * Поиск по username в tenant'е: username уникален только в пределах tenant'а
+     */
+    default Optional<UserEntity> findByUsername(String tenantId, String username) {
+        return findByTenantIdAndUsername(tenantId, username);
+    }
 
-    @Query("SELECT u FROM UserEntity u WHERE u.email = :email OR u.username = :username")
-    Optional<UserEntity> findByEmailAndUsername(@Param("email") String email, @Param("username") String username);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<UserEntity> findByTenantIdAndUsername(String tenantId, String username);
+
+    /**
+     * Проверка занятости username в tenant'е по умолчанию
+     */
+    default boolean existsByUsername(String username) {
+        return existsByUsername(UserEntity.DEFAULT_TENANT, username);
+    }
+
+    /**
+     * Проверка занятости username в tenant'е по индексу username_index (одна строка по первичному ключу)
+     */
+    default boolean existsByUsername(String tenantId, String username) {
+        return existsUsernameNormalized(tenantId, UsernameIndexEntity.normalizeUsername(username));
+    }
+
+    default boolean existsByEmail(String email) {
+        return existsByEmail(UserEntity.DEFAULT_TENANT, email);
+    }
+
+    /**
+     * Проверка занятости email в tenant'е; запрос по ключу партиционирования
+     */
+    default boolean existsByEmail(String tenantId, String email) {
+        return existsByTenantIdAndEmailNormalized(tenantId, UserEntity.normalizeEmail(email));
+    }
+
+    boolean existsByTenantIdAndEmailNormalized(String tenantId, String emailNormalized);
+
+    @Query("SELECT count(i) > 0 FROM UsernameIndexEntity i "
+            + "WHERE i.tenantId = :tenant AND i.usernameNormalized = :username")
+    boolean existsUsernameNormalized(@Param("tenant") String tenantId, @Param("username") String usernameNormalized);
+
+    default Optional<UserCredentials> findCredentialsByPrincipal(String principal) {
+        return findCredentialsByPrincipal(UserEntity.DEFAULT_TENANT, principal);
+    }
+
+    /**
+     * Данные для входа в tenant'е по email или username.
+     * Username не может содержать '@' (см. RegisterRequest), поэтому принципал с '@' ищется только по email,
+     * остальные - через username_index; в обоих случаях запрос попадает в одну партицию users.
+     */
+    default Optional<UserCredentials> findCredentialsByPrincipal(String tenantId, String principal) {
+        return principal.indexOf('@') >= 0
+                ? findCredentialsByEmail(tenantId, principal)
+                : findCredentialsByUsernameNormalized(tenantId, UsernameIndexEntity.normalizeUsername(principal));
+    }
+
+    default Optional<UserCredentials> findCredentialsByEmail(String email) {
+        return findCredentialsByEmail(UserEntity.DEFAULT_TENANT, email);
+    }
+
+    default Optional<UserCredentials> findCredentialsByEmail(String tenantId, String email) {
+        return findCredentialsByEmailNormalized(tenantId, UserEntity.normalizeEmail(email));
+    }
+
+    @Query("SELECT new com.basic.project.repository.UserCredentials(u.id, u.email, u.password, u.enabled, u.tenantId) "
+            + "FROM UserEntity u WHERE u.tenantId = :tenant AND u.emailNormalized = :email")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Transactional(readOnly = true)
+    Optional<UserCredentials> findCredentialsByEmailNormalized(@Param("tenant") String tenantId,
+                                                               @Param("email") String emailNormalized);
+
+    /**
+     * Вход по username: строка индекса дает email_normalized, соединение по нему отсекает остальные партиции
+     */
+    @Query("SELECT new com.basic.project.repository.UserCredentials(u.id, u.email, u.password, u.enabled, u.tenantId) "
+            + "FROM UsernameIndexEntity i JOIN UserEntity u "
+            + "ON u.emailNormalized = i.emailNormalized AND u.id = i.user.id "
+            + "WHERE i.tenantId = :tenant AND i.usernameNormalized = :username")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Transactional(readOnly = true)
+    Optional<UserCredentials> findCredentialsByUsernameNormalized(@Param("tenant") String tenantId,
+                                                                  @Param("username") String usernameNormalized);
+
+    /**
+     * Данные по id; id глобальный, tenant пользователя сверяет вызывающий код
+     */
+    @Query("SELECT new com.basic.project.repository.UserCredentials(u.id, u.email, u.password, u.enabled, u.tenantId) "
+            + "FROM UserEntity u WHERE u.id = :id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Transactional(readOnly = true)
+    Optional<UserCredentials> findCredentialsById(@Param("id") Long id);
+
+    /**
+     * Email пользователей с самыми поздними входами (прогрев кэша, см. WarmupRunner)
+     */
+    @Query("SELECT u.email FROM UserEntity u WHERE u.lastLoginAt IS NOT NULL ORDER BY u.lastLoginAt DESC")
+    @Transactional(readOnly = true)
+    List<String> findRecentLoginEmails(Pageable pageable);
 
 }
@@ -0,0 +1,27 @@
+package com.basic.project.repository;
+
+import com.basic.project.entity.UserEntity;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Поиск по email в tenant'е по умолчанию
+     */
+    Optional<UserEntity> findByEmail(String email);
+
+    /**
+     * Поиск по email через natural-id (tenant_id, email_normalized),
+     * чтобы повторные запросы обслуживались из second-level cache
+     */
+    Optional<UserEntity> findByEmail(String tenantId, String email);
+
+    /**
+     * Сохранение пользователя вместе со строкой username_index
+     */
+    <S extends UserEntity> S save(S user);
+
+    <S extends UserEntity> List<S> saveAll(Iterable<S> users);
+}
@@ -0,0 +1,84 @@
+package com.basic.project.repository;
+
+import com.basic.project.entity.UserEntity;
+import com.basic.project.entity.UsernameIndexEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserEntity> findByEmail(String email) {
+        return findByEmail(UserEntity.DEFAULT_TENANT, email);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserEntity> findByEmail(String tenantId, String email) {
+        return entityManager.unwrap(Session.class)
+                .byNaturalId(UserEntity.class)
+                .using("tenantId", tenantId)
+                .using("emailNormalized", UserEntity.normalizeEmail(email))
+                .loadOptional();
+    }
+
+    @Override
+    @Transactional
+    public <S extends UserEntity> S save(S user) {
+        boolean created = user.getId() == null;
+        S saved;
+        if (created) {
+            entityManager.persist(user);
+            saved = user;
+        } else {
+            saved = entityManager.merge(user);
+        }
+        syncUsernameIndex(saved, created);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public <S extends UserEntity> List<S> saveAll(Iterable<S> users) {
+        List<S> saved = new ArrayList<>();
+        for (S user : users) {
+            saved.add(save(user));
+        }
+        return saved;
+    }
+
+    /**
+     * Строка индекса должна указывать на текущие username и email_normalized пользователя.
+     * Смена username - новая строка (ключ - tenant и username), старая удаляется;
+     * username другого пользователя того же tenant'а - DuplicateKeyException.
+     */
+    private void syncUsernameIndex(UserEntity user, boolean created) {
+        String username = UsernameIndexEntity.normalizeUsername(user.getUsername());
+        UsernameIndexEntity entry = entityManager.find(UsernameIndexEntity.class,
+                new UsernameIndexEntity.Key(user.getTenantId(), username));
+        if (entry == null) {
+            if (!created) {
+                entityManager.createQuery("DELETE FROM UsernameIndexEntity i WHERE i.user.id = :id")
+                        .setParameter("id", user.getId())
+                        .executeUpdate();
+            }
+            entityManager.persist(new UsernameIndexEntity(user));
+        } else if (!Objects.equals(entry.getUser().getId(), user.getId())) {
+            throw new DuplicateKeyException("Username is already taken: " + user.getUsername());
+        } else if (!entry.getEmailNormalized().equals(user.getEmailNormalized())) {
+            entry.setEmailNormalized(user.getEmailNormalized());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.basic.project.service;
+
+/**
+ * Событие аутентификации; userId отсутствует, если пользователь не найден
+ *
+ * @param timestamp момент события в миллисекундах epoch
+ */
+public record AuthEvent(AuthEventType type, Long userId, String principal, long timestamp) {
+}
@@ -0,0 +1,91 @@
+package com.basic.project.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченный lock-free буфер событий: много производителей, один потребитель.
+ * У каждой ячейки свой номер последовательности: производитель занимает позицию CAS по хвосту
+ * и публикует ячейку записью номера, потребитель забирает только опубликованные ячейки.
+ * Переполненный буфер не ждет, а сразу возвращает false.
+ */
+final class AuthEventRing {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<AuthEvent> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    AuthEventRing(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Добавление события; {@code false}, если буфер заполнен
+     */
+    boolean offer(AuthEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, event);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Передача не более {@code limit} опубликованных событий потребителю; вызывается одним потоком
+     */
+    int drain(Consumer<AuthEvent> consumer, int limit) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            AuthEvent event = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.lazySet(index, position + capacity);
+            position++;
+            drained++;
+            consumer.accept(event);
+        }
+        head.lazySet(position);
+        return drained;
+    }
+
+    /**
+     * Приблизительное число событий в буфере
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
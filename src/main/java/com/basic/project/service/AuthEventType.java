@@ -0,0 +1,11 @@
+package com.basic.project.service;
+
+/**
+ * Типы событий аутентификации для журнала auth_events
+ */
+public enum AuthEventType {
+    REGISTER,
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    REFRESH
+}
@@ -0,0 +1,249 @@
+package com.basic.project.service;
+
+import com.basic.project.entity.UserEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронная запись событий аутентификации: журнал auth_events, last_login_at и счетчик неудачных входов.
+ * Запросы только кладут событие в {@link AuthEventRing}, фоновый поток забирает их пакетами
+ * и пишет одной транзакцией JDBC batch, когда набирается batch-size событий или самому старому
+ * событию исполняется flush-interval. Изменения строки users сворачиваются по пользователю:
+ * на пакет не больше одного UPDATE, после записи запись пользователя удаляется из L2 кэша.
+ * При переполнении буфера событие отбрасывается (overflow=drop, метрика auth.events.dropped)
+ * или пишется синхронно в потоке запроса (overflow=caller-writes). При остановке буфер дописывается.
+ */
+@Slf4j
+@Component
+public class AuthEventWriter {
+
+    static final String INSERT_EVENT =
+            "INSERT INTO auth_events (user_id, type, principal, created_at) VALUES (?, ?, ?, ?)";
+    static final String UPDATE_LOGIN =
+            "UPDATE users SET last_login_at = ?, failed_login_attempts = ? WHERE id = ?";
+    static final String ADD_FAILURES =
+            "UPDATE users SET failed_login_attempts = failed_login_attempts + ? WHERE id = ?";
+
+    private static final int MAX_PRINCIPAL_LENGTH = 255;
+
+    /**
+     * Поведение при заполненном буфере
+     */
+    public enum OverflowPolicy {
+        DROP,
+        CALLER_WRITES
+    }
+
+    private final boolean enabled;
+    private final AuthEventRing ring;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final OverflowPolicy overflow;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Thread thread;
+    private volatile boolean running;
+
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    private final Timer flushTime;
+
+    @Autowired
+    public AuthEventWriter(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory,
+            MeterRegistry meterRegistry,
+            @Value("${auth.events.enabled:true}") boolean enabled,
+            @Value("${auth.events.capacity:8192}") int capacity,
+            @Value("${auth.events.batch-size:500}") int batchSize,
+            @Value("${auth.events.flush-interval:200}") long flushIntervalMillis,
+            @Value("${auth.events.overflow:drop}") OverflowPolicy overflow
+    ) {
+        this.enabled = enabled;
+        this.ring = new AuthEventRing(capacity);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.overflow = overflow;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+
+        this.published = Counter.builder("auth.events.published")
+                .description("События аутентификации, принятые в буфер").register(meterRegistry);
+        this.dropped = Counter.builder("auth.events.dropped")
+                .description("События, отброшенные из-за переполнения буфера").register(meterRegistry);
+        this.written = Counter.builder("auth.events.written")
+                .description("События, записанные в БД").register(meterRegistry);
+        this.failed = Counter.builder("auth.events.failed")
+                .description("События, потерянные из-за ошибки записи").register(meterRegistry);
+        this.flushTime = Timer.builder("auth.events.flush")
+                .description("Время записи пакета событий").register(meterRegistry);
+        Gauge.builder("auth.events.backlog", ring, AuthEventRing::size)
+                .description("События в буфере, ожидающие записи").register(meterRegistry);
+
+        this.thread = new Thread(this::run, "auth-event-writer");
+        this.thread.setDaemon(true);
+        if (enabled) {
+            running = true;
+            thread.start();
+        }
+    }
+
+    /**
+     * Публикация события без ожидания записи
+     */
+    public void publish(AuthEventType type, Long userId, String principal) {
+        if (!enabled) {
+            return;
+        }
+        if (principal != null && principal.length() > MAX_PRINCIPAL_LENGTH) {
+            principal = principal.substring(0, MAX_PRINCIPAL_LENGTH);
+        }
+        AuthEvent event = new AuthEvent(type, userId, principal, System.currentTimeMillis());
+        if (ring.offer(event)) {
+            published.increment();
+            if (ring.size() == batchSize) {
+                LockSupport.unpark(thread);
+            }
+        } else if (overflow == OverflowPolicy.CALLER_WRITES) {
+            published.increment();
+            write(List.of(event));
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        List<AuthEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            ring.drain(batch::add, batchSize - batch.size());
+            long waited = batch.isEmpty() ? 0 : System.currentTimeMillis() - batch.get(0).timestamp();
+            if (batch.size() >= batchSize || (!batch.isEmpty() && waited >= flushIntervalMillis)) {
+                write(batch);
+                batch.clear();
+                continue;
+            }
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis - waited));
+        }
+        do {
+            ring.drain(batch::add, batchSize - batch.size());
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        } while (ring.size() > 0);
+    }
+
+    /**
+     * Запись пакета одной транзакцией; при ошибке пакет теряется, чтобы не блокировать следующие
+     */
+    void write(List<AuthEvent> batch) {
+        Map<Long, UserDelta> users = coalesce(batch);
+        List<Object[]> logins = new ArrayList<>();
+        List<Object[]> failures = new ArrayList<>();
+        users.forEach((userId, delta) -> {
+            if (delta.lastLoginAt >= 0) {
+                logins.add(new Object[]{new Timestamp(delta.lastLoginAt), delta.failures, userId});
+            } else if (delta.failures > 0) {
+                failures.add(new Object[]{delta.failures, userId});
+            }
+        });
+
+        long startedAt = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_EVENT, batch, batch.size(), (statement, event) -> {
+                    statement.setObject(1, event.userId());
+                    statement.setString(2, event.type().name());
+                    statement.setString(3, event.principal());
+                    statement.setTimestamp(4, new Timestamp(event.timestamp()));
+                });
+                if (!logins.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_LOGIN, logins);
+                }
+                if (!failures.isEmpty()) {
+                    jdbcTemplate.batchUpdate(ADD_FAILURES, failures);
+                }
+            });
+            if (!logins.isEmpty() || !failures.isEmpty()) {
+                Cache cache = entityManagerFactory.getCache();
+                users.keySet().forEach(userId -> cache.evict(UserEntity.class, userId));
+            }
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.warn("Failed to write {} auth events: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Итог пакета по пользователю: время последнего успешного входа и неудачи после него
+     */
+    private static Map<Long, UserDelta> coalesce(List<AuthEvent> batch) {
+        Map<Long, UserDelta> users = new HashMap<>();
+        for (AuthEvent event : batch) {
+            if (event.userId() == null) {
+                continue;
+            }
+            switch (event.type()) {
+                case LOGIN_SUCCESS -> {
+                    UserDelta delta = users.computeIfAbsent(event.userId(), id -> new UserDelta());
+                    delta.lastLoginAt = event.timestamp();
+                    delta.failures = 0;
+                }
+                case LOGIN_FAILURE -> users.computeIfAbsent(event.userId(), id -> new UserDelta()).failures++;
+                default -> {
+                }
+            }
+        }
+        return users;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (ring.size() > 0) {
+            log.warn("{} auth events were not written before shutdown", ring.size());
+        }
+    }
+
+    private static final class UserDelta {
+        private long lastLoginAt = -1;
+        private int failures;
+    }
+}
@@ -3,13 +3,13 @@ package com.basic.project.service;
 import com.basic.project.dto.AuthDtos;
 import com.basic.project.entity.UserEntity;
 import com.basic.project.exception.AuthException;
+import com.basic.project.jfr.PasswordHashEvent;
+import com.basic.project.repository.UserCredentials;
 import com.basic.project.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Transactional;
 
 
@@ -23,123 +23,138 @@ public class AuthService {
 
 
     private final PasswordEncoder passwordEncoder;
+    private final RefreshCoalescer refreshCoalescer;
+    private final LoginPipeline loginPipeline;
+    private final AuthEventWriter authEventWriter;
 
-    @Value("${jwt.access.ttl}")
-    private long accessTokenExpiration;
     /**
      * Регистрация нового пользователя
      */
 
     @Transactional
     public AuthDtos.TokenResponse register(AuthDtos.RegisterRequest request) {
+        return register(jwtService.tenants().defaultTenant(), request);
+    }
+
+    /**
+     * Регистрация нового пользователя в tenant'е; email и username уникальны в пределах tenant'а
+     */
+    @Transactional
+    public AuthDtos.TokenResponse register(Tenant tenant, AuthDtos.RegisterRequest request) {
 
         // Проверяем, существует ли пользователь с таким email
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userRepository.existsByEmail(tenant.id(), request.getEmail())) {
             throw AuthException.userAlreadyExists(request.getEmail());
         }
 
         // Проверяем, существует ли пользователь с таким username
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (userRepository.existsByUsername(tenant.id(), request.getUsername())) {
             throw AuthException.userAlreadyExists(request.getUsername());
         }
 
 
         UserEntity userEntity = new UserEntity();
+        userEntity.setTenantId(tenant.id());
         userEntity.setUsername(request.getUsername());
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
         userEntity.setPassword(passwordEncoder.encode(request.getPassword()));
+        event.end("encode", true);
         userEntity.setEmail(request.getEmail());
         userEntity.setPhone(request.getPhone());
         userEntity.setEnabled(true);
 
         UserEntity savedUserEntity = userRepository.save(userEntity);
+        authEventWriter.publish(AuthEventType.REGISTER, savedUserEntity.getId(), savedUserEntity.getEmail());
 
-
-        String accessToken = jwtService.generateAccessToken(String.valueOf(savedUserEntity.getId()));
-        String refreshToken = jwtService.generateRefreshToken(String.valueOf(savedUserEntity.getId()));
-
-
-        return new AuthDtos.TokenResponse(
-            savedUserEntity.getId(),
-            accessToken,
-            refreshToken,
-            accessTokenExpiration
-        );
+        return issueTokens(tenant, savedUserEntity.getId(), savedUserEntity.getEmail());
 
     }
 
     /**
-     * Вход в систему
+     * Вход в систему.
+     * Выполняется стадиями {@link LoginPipeline}; транзакцию открывает стадия поиска,
+     * чтобы ожидающий поток запроса не держал соединение.
      */
-
-    @Transactional(readOnly = true)
     public AuthDtos.TokenResponse login(AuthDtos.LoginRequest request) {
-        UserEntity user = userRepository.findByEmailIgnoreCaseOrUsernameIgnoreCase(
-                request.getPrincipal(), request.getPrincipal())
-                .orElseThrow(() -> {
-                    log.warn("User not found: {}", request.getPrincipal());
-                    return AuthException.invalidCredentials();
-                });
-
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            log.warn("Incorrect password for user: {}", request.getPrincipal());
-            throw AuthException.invalidCredentials();
-        }
-
-        if (!user.isEnabled()){
-            log.warn("User is disabled");
-            throw AuthException.userDisabled();
-        }
-
-        String accessToken = jwtService.generateAccessToken(user.getEmail());
-        String refreshToken = jwtService.generateRefreshToken(user.getEmail());
-
-        log.info("User logged in successfully: {}", user.getEmail());
+        return loginPipeline.login(request);
+    }
 
-        return new AuthDtos.TokenResponse(
-            user.getId(),
-            accessToken,
-            refreshToken,
-            accessTokenExpiration
-        );
+    public AuthDtos.TokenResponse login(Tenant tenant, AuthDtos.LoginRequest request) {
+        return loginPipeline.login(tenant, request);
     }
 
     /**
-     * Обновление токена
+     * Обновление токена.
+     * Одновременные обновления одного пользователя разделяют один поиск в БД и одну новую пару токенов,
+     * поэтому метод не открывает транзакцию: ожидающие запросы не должны держать соединение.
+     * Tenant берется из claim tid проверенного токена; токен удаленного tenant'а недействителен.
      */
-
-    @Transactional(readOnly = true)
     public AuthDtos.TokenResponse refresh(AuthDtos.RefreshRequest request) {
+        return refresh(jwtService.verifyRefreshToken(request.getRefreshToken()));
+    }
 
-        String email = jwtService.getEmailFromToken(request.getRefreshToken());
-        UserEntity user = userRepository.findByEmail(email)
-                .orElseThrow(() -> AuthException.invalidRefreshToken());
-
-        // Проверяем, что пользователь активен
-        if (!user.isEnabled()) {
-            log.warn("Disabled user attempted to refresh token: {}", email);
-            throw AuthException.userDisabled();
+    /**
+     * Обновление по уже проверенному refresh токену ({@link JwtService#verifyRefreshToken}); {@code null} - недействителен
+     */
+    public AuthDtos.TokenResponse refresh(VerifiedToken token) {
+        if (token == null || token.subject() == null) {
+            throw AuthException.invalidRefreshToken();
         }
+        Tenant tenant = jwtService.tenants().find(token.tenant());
+        if (tenant == null) {
+            throw AuthException.invalidRefreshToken();
+        }
+
+        // Email уникален только в tenant'е, поэтому ключ объединения включает tenant (id tenant'а не содержит ':')
+        String flightKey = token.tenant() == null ? token.subject() : token.tenant() + ':' + token.subject();
+        return refreshCoalescer.refresh(flightKey, token.issuedAt(), () -> {
+            // Компактный токен несет id пользователя, стандартный - email
+            UserCredentials user = (token.userId() != null
+                    ? userRepository.findCredentialsById(token.userId())
+                    .filter(credentials -> credentials.tenantId().equals(tenant.id()))
+                    : userRepository.findCredentialsByEmail(tenant.id(), token.subject()))
+                    .orElseThrow(() -> AuthException.invalidRefreshToken());
+
+            // Проверяем, что пользователь активен
+            if (!user.enabled()) {
+                log.warn("Disabled user attempted to refresh token: {}", user.email());
+                throw AuthException.userDisabled();
+            }
+
+            // Одно событие на объединенную группу обновлений
+            authEventWriter.publish(AuthEventType.REFRESH, user.id(), user.email());
+
+            // Генерируем новые токены
+            return issueTokens(tenant, user.id(), user.email());
+        });
+    }
 
-        // Генерируем новые токены
-        String newAccessToken = jwtService.generateAccessToken(user.getEmail());
-        String newRefreshToken = jwtService.generateRefreshToken(user.getEmail());
+
+    /**
+     * Выпуск пары токенов; срок жизни access токена и момент его обновления разбросаны политикой
+     */
+    private AuthDtos.TokenResponse issueTokens(Tenant tenant, Long userId, String email) {
+        String subject = jwtService.subjectFor(userId, email);
+        TokenTtlPolicy ttlPolicy = jwtService.accessTtlPolicy();
+        long expiresIn = ttlPolicy.nextTtl();
+        String accessToken = jwtService.generateAccessToken(tenant, subject, expiresIn);
+        String refreshToken = jwtService.generateRefreshToken(tenant, subject);
 
         return new AuthDtos.TokenResponse(
-                user.getId(),
-                newAccessToken,
-                newRefreshToken,
-                accessTokenExpiration
+                userId,
+                accessToken,
+                refreshToken,
+                expiresIn,
+                ttlPolicy.refreshAfter(expiresIn)
         );
     }
 
-
     /**
-     * Валидация токена
+     * Валидация токена из заголовка Authorization, начиная с позиции offset
      */
-    @Transactional(readOnly = true)
-    @Cacheable(value = "tokenValidationCache", key = "#token")
-    public boolean validateToken(String token) {
-        return jwtService.isValidAccessToken(token);
+    public boolean validateToken(String authorization, int offset) {
+        return jwtService.isValidAccessToken(authorization, offset);
     }
 
 
@@ -0,0 +1,64 @@
+package com.basic.project.service;
+
+import javax.crypto.Mac;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+
+/**
+ * HMAC для одного ключа с заранее вычисленным состоянием.
+ * Ключ инициализируется один раз в прототипе (inner/outer pad уже посчитаны),
+ * каждый поток получает свою копию через clone() и переиспользует ее,
+ * вместо Mac.getInstance() + init() на каждую операцию.
+ */
+final class HmacEngine {
+
+    private final Key key;
+    private final Mac prototype;
+    private final ThreadLocal<Mac> mac;
+
+    HmacEngine(String algorithm, Key key) {
+        this.key = key;
+        this.prototype = newMac(algorithm, key);
+        this.mac = ThreadLocal.withInitial(this::copy);
+    }
+
+    /**
+     * Длина подписи в байтах
+     */
+    int length() {
+        return prototype.getMacLength();
+    }
+
+    /**
+     * Подпись {@code input[0, length)} в {@code output[offset, offset + length())}
+     */
+    void sign(byte[] input, int length, byte[] output, int offset) throws GeneralSecurityException {
+        Mac engine = mac.get();
+        engine.update(input, 0, length);
+        engine.doFinal(output, offset);
+    }
+
+    byte[] sign(byte[] input) {
+        Mac engine = mac.get();
+        return engine.doFinal(input);
+    }
+
+    private Mac copy() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            // Провайдер без clone(): инициализируем ключом заново, один раз на поток
+            return newMac(prototype.getAlgorithm(), key);
+        }
+    }
+
+    private static Mac newMac(String algorithm, Key key) {
+        try {
+            Mac instance = Mac.getInstance(algorithm);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize " + algorithm, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.basic.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Перезагрузка ключей подписи из файла без перезапуска.
+ * Формат файла (properties):
+ * <pre>
+ * access.active=2025-10
+ * access.keys.2025-10=...
+ * access.keys.2025-07=...
+ * refresh.active=2025-10
+ * refresh.keys.2025-10=...
+ * </pre>
+ */
+@Slf4j
+@Component
+public class JwtKeyFileLoader {
+
+    private final JwtService jwtService;
+    private final Path keysFile;
+    private FileTime lastModified;
+
+    public JwtKeyFileLoader(JwtService jwtService, @Value("${jwt.keys.file:}") String keysFile) {
+        this.jwtService = jwtService;
+        this.keysFile = keysFile.isBlank() ? null : Path.of(keysFile);
+        reloadIfChanged();
+    }
+
+    /**
+     * Проверка файла ключей по расписанию; ключи применяются, только если файл изменился
+     */
+    @Scheduled(initialDelayString = "${jwt.keys.reload-interval:30000}", fixedDelayString = "${jwt.keys.reload-interval:30000}")
+    public synchronized void reloadIfChanged() {
+        if (keysFile == null) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(keysFile);
+            if (modified.equals(lastModified)) {
+                return;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(keysFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            apply(properties, "access", jwtService.accessKeys());
+            apply(properties, "refresh", jwtService.refreshKeys());
+            lastModified = modified;
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Failed to reload JWT keys from {}: {}", keysFile, e.getMessage());
+        }
+    }
+
+    private void apply(Properties properties, String type, JwtKeyRing keyRing) {
+        String prefix = type + ".keys.";
+        Map<String, String> secrets = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(prefix)) {
+                String secret = properties.getProperty(name).trim();
+                jwtService.validateSecret(secret, type + " key " + name.substring(prefix.length()));
+                secrets.put(name.substring(prefix.length()), secret);
+            }
+        }
+        if (secrets.isEmpty()) {
+            return;
+        }
+        String active = properties.getProperty(type + ".active");
+        if (active == null) {
+            throw new IllegalArgumentException(type + ".active is not set");
+        }
+        keyRing.rotate(active.trim(), secrets);
+    }
+}
@@ -0,0 +1,288 @@
+package com.basic.project.service;
+
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Набор ключей подписи одного типа токенов с выбором по kid.
+ * Снимок ключей неизменяемый и подменяется целиком, поэтому поиск на горячем пути идет без блокировок.
+ * Выведенные из ротации ключи продолжают проверять подписи, пока не истекут подписанные ими токены.
+ */
+@Slf4j
+public class JwtKeyRing {
+
+    /**
+     * Метка вывода ключа HS256 компактного формата; клиентская библиотека выводит ключ с той же меткой
+     */
+    static final String COMPACT_KEY_LABEL = "basic-project/jwt/compact-hs256";
+
+    private final String name;
+    private final String tenant;
+    private final Duration retention;
+    private final Clock clock;
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(String name, String secret, Duration retention) {
+        this(name, null, secret, retention, Clock.systemUTC());
+    }
+
+    JwtKeyRing(String name, String secret, Duration retention, Clock clock) {
+        this(name, null, secret, retention, clock);
+    }
+
+    /**
+     * Набор ключей tenant'а: токены, подписанные его ключами, несут claim tid
+     */
+    JwtKeyRing(String name, String tenant, String secret, Duration retention, Clock clock) {
+        this.name = name;
+        this.tenant = tenant;
+        this.retention = retention;
+        this.clock = clock;
+        SigningKey key = new SigningKey(deriveKid(secret), tenant, secret, null);
+        this.snapshot = new Snapshot(key, Map.of(key.kid(), key));
+    }
+
+    private JwtKeyRing(JwtKeyRing source) {
+        this.name = source.name;
+        this.tenant = source.tenant;
+        this.retention = source.retention;
+        this.clock = source.clock;
+        this.snapshot = source.snapshot;
+    }
+
+    /**
+     * Независимая копия с теми же ключами: ротация копии не видна читателям исходного набора
+     */
+    JwtKeyRing copy() {
+        return new JwtKeyRing(this);
+    }
+
+    /**
+     * Tenant, которому принадлежат ключи; {@code null} у общего набора
+     */
+    public String tenant() {
+        return tenant;
+    }
+
+    /**
+     * Ключ, которым подписываются новые токены
+     */
+    public SigningKey active() {
+        return snapshot.active();
+    }
+
+    /**
+     * Ключ для проверки подписи по kid; без kid используется активный ключ.
+     * Возвращает {@code null}, если ключ неизвестен или срок его перекрытия истек.
+     */
+    public SigningKey find(String kid) {
+        Snapshot current = snapshot;
+        if (kid == null) {
+            return current.active();
+        }
+        SigningKey key = current.keys().get(kid);
+        if (key == null || (key.retiredAt() != null && !key.retiredAt().plus(retention).isAfter(clock.instant()))) {
+            return null;
+        }
+        return key;
+    }
+
+    /**
+     * Ключи, которые сейчас принимаются при проверке подписи (активный и выведенные, чье перекрытие не истекло)
+     */
+    public List<SigningKey> verifyingKeys() {
+        Instant now = clock.instant();
+        return snapshot.keys().values().stream()
+                .filter(key -> key.retiredAt() == null || key.retiredAt().plus(retention).isAfter(now))
+                .toList();
+    }
+
+    /**
+     * Замена набора ключей: {@code activeKid} становится ключом подписи,
+     * ключи, пропавшие из {@code secrets}, остаются только для проверки на время retention
+     */
+    public synchronized void rotate(String activeKid, Map<String, String> secrets) {
+        if (!secrets.containsKey(activeKid)) {
+            throw new IllegalArgumentException(name + " key ring has no secret for active kid " + activeKid);
+        }
+        Instant now = clock.instant();
+        Snapshot current = snapshot;
+        Map<String, SigningKey> next = new HashMap<>();
+
+        secrets.forEach((kid, secret) -> {
+            SigningKey existing = current.keys().get(kid);
+            if (existing != null && existing.hasSecret(secret)) {
+                next.put(kid, existing.retiredAt() == null ? existing : existing.withRetiredAt(null));
+            } else {
+                if (existing != null) {
+                    log.warn("{} key {} was replaced with a different secret, its tokens are no longer valid", name, kid);
+                }
+                next.put(kid, new SigningKey(kid, tenant, secret, null));
+            }
+        });
+
+        for (SigningKey old : current.keys().values()) {
+            if (next.containsKey(old.kid())) {
+                continue;
+            }
+            Instant retiredAt = old.retiredAt() != null ? old.retiredAt() : now;
+            if (retiredAt.plus(retention).isAfter(now)) {
+                next.put(old.kid(), old.retiredAt() != null ? old : old.withRetiredAt(retiredAt));
+            }
+        }
+
+        snapshot = new Snapshot(next.get(activeKid), Map.copyOf(next));
+        if (!current.active().kid().equals(activeKid)) {
+            log.info("{} signing key rotated: {} -> {}, verifying kids: {}",
+                    name, current.active().kid(), activeKid, next.keySet());
+        }
+    }
+
+    /**
+     * Стабильный kid, выведенный из секрета, чтобы он не менялся между перезапусками
+     */
+    static String deriveKid(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Snapshot(SigningKey active, Map<String, SigningKey> keys) {
+    }
+
+    /**
+     * Ключ подписи с идентификатором, готовыми заголовками токенов и HMAC движками:
+     * HS512 для стандартного формата и HS256 для компактного
+     */
+    public static final class SigningKey {
+
+        private final String kid;
+        private final String tenant;
+        private final SecretKey key;
+        private final byte[] secretDigest;
+        private final Instant retiredAt;
+        private final HmacEngine engine;
+        private final String encodedHeader;
+        private final SecretKey compactKey;
+        private final HmacEngine compactEngine;
+        private final String compactHeader;
+
+        private SigningKey(String kid, String tenant, String secret, Instant retiredAt) {
+            this.kid = kid;
+            this.tenant = tenant;
+            this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            this.secretDigest = digest(secret);
+            this.retiredAt = retiredAt;
+            this.engine = new HmacEngine("HmacSHA512", key);
+            this.encodedHeader = TokenSigner.encodeHeader(TokenVerifier.ALGORITHM, kid);
+            this.compactKey = deriveCompactKey(key);
+            this.compactEngine = new HmacEngine("HmacSHA256", compactKey);
+            this.compactHeader = TokenSigner.encodeHeader(TokenVerifier.COMPACT_ALGORITHM, kid);
+        }
+
+        private SigningKey(SigningKey source, Instant retiredAt) {
+            this.kid = source.kid;
+            this.tenant = source.tenant;
+            this.key = source.key;
+            this.secretDigest = source.secretDigest;
+            this.retiredAt = retiredAt;
+            this.engine = source.engine;
+            this.encodedHeader = source.encodedHeader;
+            this.compactKey = source.compactKey;
+            this.compactEngine = source.compactEngine;
+            this.compactHeader = source.compactHeader;
+        }
+
+        public String kid() {
+            return kid;
+        }
+
+        public SecretKey key() {
+            return key;
+        }
+
+        /**
+         * Tenant ключа (claim tid подписанных им токенов); {@code null} у общего набора
+         */
+        public String tenant() {
+            return tenant;
+        }
+
+        Instant retiredAt() {
+            return retiredAt;
+        }
+
+        HmacEngine engine() {
+            return engine;
+        }
+
+        /**
+         * Base64url заголовка {"alg":"HS512","kid":...}
+         */
+        String encodedHeader() {
+            return encodedHeader;
+        }
+
+        /**
+         * Ключ HS256 компактного формата, выведенный из секрета: один ключ не используется в двух алгоритмах
+         */
+        public SecretKey compactKey() {
+            return compactKey;
+        }
+
+        HmacEngine compactEngine() {
+            return compactEngine;
+        }
+
+        /**
+         * Base64url заголовка {"alg":"HS256","kid":...}
+         */
+        String compactHeader() {
+            return compactHeader;
+        }
+
+        private SigningKey withRetiredAt(Instant retiredAt) {
+            return new SigningKey(this, retiredAt);
+        }
+
+        private boolean hasSecret(String secret) {
+            return MessageDigest.isEqual(secretDigest, digest(secret));
+        }
+
+        /**
+         * HKDF-Expand (RFC 5869) по HMAC-SHA256 на 32 байта: секрет длиной не меньше 64 байт служит PRK,
+         * info — COMPACT_KEY_LABEL
+         */
+        private static SecretKey deriveCompactKey(SecretKey key) {
+            byte[] label = COMPACT_KEY_LABEL.getBytes(StandardCharsets.US_ASCII);
+            byte[] info = Arrays.copyOf(label, label.length + 1);
+            info[label.length] = 1;
+            return new SecretKeySpec(new HmacEngine("HmacSHA256", key).sign(info), "HmacSHA256");
+        }
+
+        private static byte[] digest(String secret) {
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
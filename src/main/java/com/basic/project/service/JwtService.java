@@ -1,114 +1,197 @@
 package com.basic.project.service;
 
 import com.basic.project.exception.AuthException;
+import com.basic.project.jfr.TokenEvent;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Objects;
 
 @Service
 @Slf4j
 public class JwtService {
 
-    private final Key accessToken;
-    private final Key refreshToken;
+    /** Минимальная длина секрета подписи HS512 в байтах */
+    static final int MIN_SECRET_BYTES = 64;
+
+    private final JwtKeyRing accessKeys;
+    private final JwtKeyRing refreshKeys;
     private final long expiresIn;
     private final long refreshExpiresIn;
+    private final TokenFormat format;
+    private final TokenTtlPolicy accessTtlPolicy;
+    private final TokenVerifier accessVerifier;
+    private final TokenVerifier refreshVerifier;
+    private final JwtParser accessParser;
+    private final JwtParser refreshParser;
+    private final TenantRegistry tenants;
 
 
+    @Autowired
     public JwtService(
             @Value("${jwt.access.secret}") String accessToken,
             @Value("${jwt.refresh.secret}") String refreshToken,
             @Value("${jwt.access.ttl}") long expiresIn,
-            @Value("${jwt.refresh.ttl}") long refreshExpiresIn
+            @Value("${jwt.refresh.ttl}") long refreshExpiresIn,
+            @Value("${jwt.access.ttl-jitter:0}") double expiresInJitter,
+            @Value("${jwt.access.refresh-after.min:1}") double refreshAfterMin,
+            @Value("${jwt.access.refresh-after.max:1}") double refreshAfterMax,
+            @Value("${jwt.format:standard}") TokenFormat format
     ) {
 
         validateSecret(accessToken, "Access token secret");
         validateSecret(refreshToken, "Refresh token secret");
 
-        this.accessToken = Keys.hmacShaKeyFor(accessToken.getBytes(StandardCharsets.UTF_8));
-        this.refreshToken = Keys.hmacShaKeyFor(refreshToken.getBytes(StandardCharsets.UTF_8));
+        this.accessKeys = new JwtKeyRing("Access", accessToken, Duration.ofSeconds(expiresIn));
+        this.refreshKeys = new JwtKeyRing("Refresh", refreshToken, Duration.ofSeconds(refreshExpiresIn));
         this.expiresIn = expiresIn;
         this.refreshExpiresIn = refreshExpiresIn;
+        this.format = format;
+        this.accessTtlPolicy = new TokenTtlPolicy(expiresIn, expiresInJitter, refreshAfterMin, refreshAfterMax);
+        this.tenants = new TenantRegistry(accessKeys, refreshKeys,
+                Duration.ofSeconds(expiresIn), Duration.ofSeconds(refreshExpiresIn));
+        this.accessVerifier = new TokenVerifier(this::findAccessKey, "access");
+        this.refreshVerifier = new TokenVerifier(this::findRefreshKey, "refresh");
+        this.accessParser = parserFor(this::findAccessKey);
+        this.refreshParser = parserFor(this::findRefreshKey);
+
+        log.info("JWT access token: {}s (kid {}), refreshToken: {}s (kid {}), format: {}",
+                expiresIn, accessKeys.active().kid(), refreshExpiresIn, refreshKeys.active().kid(), format);
+    }
+
+    /**
+     * Набор ключей access токенов
+     */
+    public JwtKeyRing accessKeys() {
+        return accessKeys;
+    }
+
+    /**
+     * Набор ключей refresh токенов
+     */
+    public JwtKeyRing refreshKeys() {
+        return refreshKeys;
+    }
+
+    /**
+     * Tenant'ы со своими ключами; общие ключи принадлежат tenant'у по умолчанию
+     */
+    public TenantRegistry tenants() {
+        return tenants;
+    }
+
+    /**
+     * Ключ проверки: сначала общий набор, затем ключи tenant'ов
+     */
+    private JwtKeyRing.SigningKey findAccessKey(String kid) {
+        JwtKeyRing.SigningKey key = accessKeys.find(kid);
+        return key != null ? key : tenants.findAccessKey(kid);
+    }
+
+    private JwtKeyRing.SigningKey findRefreshKey(String kid) {
+        JwtKeyRing.SigningKey key = refreshKeys.find(kid);
+        return key != null ? key : tenants.findRefreshKey(kid);
+    }
+
+    /**
+     * Политика времени жизни access токенов
+     */
+    public TokenTtlPolicy accessTtlPolicy() {
+        return accessTtlPolicy;
+    }
+
+    /**
+     * Формат выпускаемых токенов
+     */
+    public TokenFormat format() {
+        return format;
+    }
 
-        log.info("JWT access token: {}s, refreshToken: {}s" , accessToken, refreshToken);
+    /**
+     * Subject для выпуска токенов: email в стандартном формате, id пользователя в компактном
+     */
+    public String subjectFor(Long userId, String email) {
+        return format == TokenFormat.COMPACT ? String.valueOf(userId) : email;
     }
 
     /**
      * Генерация accesss токена
      */
     public String generateAccessToken(String subject) {
-        try {
-            Instant now = Instant.now();
-            Instant expiresAt = now.plusSeconds(expiresIn);
-            String token =Jwts.builder()
-                    .setSubject(subject)
-                    .addClaims(Map.of(
-                            "type", "access"
-                    ))
-                    .setIssuedAt(Date.from(now))
-                    .setExpiration(Date.from(expiresAt))
-                    .signWith(accessToken, SignatureAlgorithm.HS512)
-                    .compact();
-            return token;
-        }
-        catch (Exception e) {
-            throw new RuntimeException("Failed to generate access token",e);
-        }
+        return generateAccessToken(subject, accessTtlPolicy.nextTtl());
     }
 
     /**
-     * Генерация refresh токена
+     * Генерация access токена с заданным временем жизни в секундах
      */
-    public String generateRefreshToken(String subject) {
+    public String generateAccessToken(String subject, long ttlSeconds) {
+        return generateAccessToken(tenants.defaultTenant(), subject, ttlSeconds);
+    }
 
-        try {
+    /**
+     * Генерация access токена ключом tenant'а (claim tid)
+     */
+    public String generateAccessToken(Tenant tenant, String subject, long ttlSeconds) {
+        TokenEvent event = new TokenEvent();
+        event.begin();
+        long now = Instant.now().getEpochSecond();
+        JwtKeyRing.SigningKey key = tenant.accessKeys().active();
+        String token = format == TokenFormat.COMPACT
+                ? TokenSigner.signCompact(key, Long.parseLong(subject), 'a', now, now + ttlSeconds)
+                : TokenSigner.sign(key, subject, "access", now, now + ttlSeconds);
+        event.end("sign", "access", format.name(), "issued");
+        return token;
+    }
 
-            Instant now = Instant.now();
-            Instant expiresAt = now.plusSeconds(refreshExpiresIn);
-            String token = Jwts.builder()
-                    .setSubject(subject)
-                    .addClaims(Map.of(
-                            "type", "refresh"
-                    ))
-                    .setIssuedAt(Date.from(now))
-                    .setExpiration(Date.from(expiresAt))
-                    .signWith(refreshToken, SignatureAlgorithm.HS512)
-                    .compact();
-            return token;
-        }
+    /**
+     * Генерация refresh токена
+     */
+    public String generateRefreshToken(String subject) {
+        return generateRefreshToken(tenants.defaultTenant(), subject);
+    }
 
-        catch (Exception e) {
-            throw new RuntimeException("Failed to generate refresh token",e);
-        }
+    /**
+     * Генерация refresh токена ключом tenant'а (claim tid)
+     */
+    public String generateRefreshToken(Tenant tenant, String subject) {
+        TokenEvent event = new TokenEvent();
+        event.begin();
+        long now = Instant.now().getEpochSecond();
+        JwtKeyRing.SigningKey key = tenant.refreshKeys().active();
+        String token = format == TokenFormat.COMPACT
+                ? TokenSigner.signCompact(key, Long.parseLong(subject), 'r', now, now + refreshExpiresIn)
+                : TokenSigner.sign(key, subject, "refresh", now, now + refreshExpiresIn);
+        event.end("sign", "refresh", format.name(), "issued");
+        return token;
     }
 
     /**
      *AccessToken парсинг
      */
     public Jws<Claims> parseAccess(String token){
+        TokenEvent event = new TokenEvent();
+        event.begin();
+        String verdict = "invalid";
         try {
-            Jws<Claims> claims = Jwts.parserBuilder()
-                    .setSigningKey(accessToken)
-                    .build()
-                    .parseClaimsJws(token);
+            Jws<Claims> claims = accessParser.parseClaimsJws(token);
 
-            String tokenType = claims.getBody().get("type", String.class);
-            if (!tokenType.equals("access")) {
+            if (!hasType(claims, "access") || !hasTenant(claims, findAccessKey(claims.getHeader().getKeyId()))) {
                 throw new RuntimeException("Invalid access token");
             }
+            verdict = "valid";
             return claims;
 
         }
         catch (ExpiredJwtException e) {
+            verdict = "expired";
             log.warn("Expired access token: {}", e.getMessage());
             throw AuthException.invalidInput("Token expired");
         } catch (UnsupportedJwtException e) {
@@ -123,6 +206,8 @@ public class JwtService {
         } catch (IllegalArgumentException e) {
             log.warn("Invalid JWT token: {}", e.getMessage());
             throw AuthException.invalidInput("Invalid token");
+        } finally {
+            event.end("parse", "access", null, verdict);
         }
     }
 
@@ -130,19 +215,20 @@ public class JwtService {
      * Парсинг refresh токена
      */
     public Jws<Claims> parseRefresh(String token){
+        TokenEvent event = new TokenEvent();
+        event.begin();
+        String verdict = "invalid";
         try {
-            Jws<Claims> claims = Jwts.parserBuilder()
-                    .setSigningKey(refreshToken)
-                    .build()
-                    .parseClaimsJws(token);
+            Jws<Claims> claims = refreshParser.parseClaimsJws(token);
 
-            String tokenType = claims.getBody().get("type", String.class);
-            if (!tokenType.equals("refresh")) {
+            if (!hasType(claims, "refresh") || !hasTenant(claims, findRefreshKey(claims.getHeader().getKeyId()))) {
                 throw new RuntimeException("Invalid refresh token");
             }
+            verdict = "valid";
             return claims;
         }
         catch (ExpiredJwtException e) {
+            verdict = "expired";
             log.warn("Expired refresh token: {}", e.getMessage());
             throw AuthException.invalidInput("Token expired");
         }
@@ -162,6 +248,46 @@ public class JwtService {
             log.warn("Invalid refresh token: {}", e.getMessage());
             throw AuthException.invalidInput("Invalid refresh token");
         }
+        finally {
+            event.end("parse", "refresh", null, verdict);
+        }
+    }
+
+    /**
+     * Тип токена по claim type (HS512) или по однобуквенному claim t (компактный HS256)
+     */
+    private static boolean hasType(Jws<Claims> claims, String type) {
+        if (TokenVerifier.COMPACT_ALGORITHM.equals(claims.getHeader().getAlgorithm())) {
+            return type.substring(0, 1).equals(claims.getBody().get("t", String.class));
+        }
+        return TokenVerifier.ALGORITHM.equals(claims.getHeader().getAlgorithm())
+                && type.equals(claims.getBody().get("type", String.class));
+    }
+
+    /**
+     * Claim tid совпадает с tenant'ом ключа подписи (у общих ключей tid отсутствует)
+     */
+    private static boolean hasTenant(Jws<Claims> claims, JwtKeyRing.SigningKey key) {
+        return key != null && Objects.equals(key.tenant(), claims.getBody().get("tid", String.class));
+    }
+
+    /**
+     * Парсер, выбирающий ключ проверки по kid из заголовка токена
+     */
+    private static JwtParser parserFor(TokenVerifier.KeyLookup keys) {
+        return Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        JwtKeyRing.SigningKey key = keys.find(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key: " + header.getKeyId());
+                        }
+                        return TokenVerifier.COMPACT_ALGORITHM.equals(header.getAlgorithm())
+                                ? key.compactKey() : key.key();
+                    }
+                })
+                .build();
     }
 
     /**
@@ -172,8 +298,9 @@ public class JwtService {
         if (secret == null || secret.trim().isEmpty()) {
             throw new IllegalArgumentException(secretName + " cannot be null or empty");
         }
-        if (secret.length() < 32) {
-            throw new IllegalArgumentException(secretName + " must be at least 32 characters long");
+        // Токены подписываются HS512: ключ короче 512 бит jjwt не примет при разборе
+        if (secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException(secretName + " must be at least " + MIN_SECRET_BYTES + " bytes long");
         }
 
         if (secret.contains("your-super-secret") && !secret.contains("development-only")) {
@@ -193,16 +320,35 @@ public class JwtService {
         }
     }
 
+    /**
+     * Проверка access токена, начинающегося с позиции offset (например, после "Bearer "),
+     * без выделения подстроки и без разбора через jjwt
+     */
+    public boolean isValidAccessToken(String source, int offset) {
+        TokenEvent event = new TokenEvent();
+        event.begin();
+        boolean valid = accessVerifier.verify(source, offset, false) != null;
+        event.end("verify", "access", null, valid ? "valid" : "invalid");
+        return valid;
+    }
+
+    /**
+     * Проверка refresh токена без исключений; {@code null}, если токен недействителен
+     */
+    public VerifiedToken verifyRefreshToken(String token) {
+        TokenEvent event = new TokenEvent();
+        event.begin();
+        VerifiedToken verified = refreshVerifier.verify(token, 0, true);
+        event.end("verify", "refresh", null, verified == null ? "invalid" : "valid");
+        return verified;
+    }
 
     /**
      * Получение email из токена
      */
     public String getEmailFromToken(String token) {
         try {
-            Jws<Claims> claims = Jwts.parserBuilder()
-                    .setSigningKey(accessToken)
-                    .build()
-                    .parseClaimsJws(token);
+            Jws<Claims> claims = accessParser.parseClaimsJws(token);
 
             return claims.getBody().getSubject();
         } catch (Exception e) {
@@ -0,0 +1,251 @@
+package com.basic.project.service;
+
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.exception.AuthException;
+import com.basic.project.jfr.PasswordHashEvent;
+import com.basic.project.repository.UserCredentials;
+import com.basic.project.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Вход в систему как конвейер стадий: поиск пользователя, проверка хэша пароля
+ * и параллельная подпись access и refresh токенов. У каждой стадии свой ограниченный пул
+ * и очередь; переполненная стадия сразу отклоняет запрос (SERVICE_OVERLOADED).
+ * Время ожидания в очереди и выполнения каждой стадии пишется в метрики
+ * auth.login.stage.queue и auth.login.stage с тегом stage.
+ * По таймауту вход отменяется: еще не начатые стадии пропускаются (auth.login.stage.cancelled).
+ * Итог входа публикуется в {@link AuthEventWriter} без ожидания записи.
+ * Пользователь ищется в tenant'е запроса, токены подписываются ключами этого tenant'а.
+ */
+@Slf4j
+@Component
+public class LoginPipeline {
+
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+    private final PasswordEncoder passwordEncoder;
+    private final AuthEventWriter authEventWriter;
+    private final long timeoutMillis;
+
+    private final Stage lookup;
+    private final Stage verify;
+    private final Stage sign;
+
+    public LoginPipeline(
+            UserRepository userRepository,
+            JwtService jwtService,
+            PasswordEncoder passwordEncoder,
+            AuthEventWriter authEventWriter,
+            MeterRegistry meterRegistry,
+            @Value("${auth.login.pipeline.lookup.threads:8}") int lookupThreads,
+            @Value("${auth.login.pipeline.lookup.queue:256}") int lookupQueue,
+            @Value("${auth.login.pipeline.verify.threads:0}") int verifyThreads,
+            @Value("${auth.login.pipeline.verify.queue:256}") int verifyQueue,
+            @Value("${auth.login.pipeline.sign.threads:4}") int signThreads,
+            @Value("${auth.login.pipeline.sign.queue:512}") int signQueue,
+            @Value("${auth.login.pipeline.timeout:5000}") long timeoutMillis
+    ) {
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+        this.passwordEncoder = passwordEncoder;
+        this.authEventWriter = authEventWriter;
+        this.timeoutMillis = timeoutMillis;
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.lookup = new Stage("lookup", lookupThreads, lookupQueue, meterRegistry);
+        this.verify = new Stage("verify", verifyThreads > 0 ? verifyThreads : cores, verifyQueue, meterRegistry);
+        this.sign = new Stage("sign", signThreads, signQueue, meterRegistry);
+    }
+
+    /**
+     * Выполнение входа; вызывающий поток ждет результат не дольше таймаута
+     */
+    public AuthDtos.TokenResponse login(AuthDtos.LoginRequest request) {
+        return login(jwtService.tenants().defaultTenant(), request);
+    }
+
+    /**
+     * Вход в tenant'е
+     */
+    public AuthDtos.TokenResponse login(Tenant tenant, AuthDtos.LoginRequest request) {
+        CompletableFuture<AuthDtos.TokenResponse> login = submit(tenant, request);
+        try {
+            return login.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Login failed", e.getCause());
+        } catch (TimeoutException e) {
+            login.cancel(false);
+            log.warn("Login pipeline timed out after {} ms", timeoutMillis);
+            throw AuthException.serviceOverloaded();
+        } catch (InterruptedException e) {
+            login.cancel(false);
+            Thread.currentThread().interrupt();
+            throw AuthException.serviceOverloaded();
+        }
+    }
+
+    CompletableFuture<AuthDtos.TokenResponse> submit(AuthDtos.LoginRequest request) {
+        return submit(jwtService.tenants().defaultTenant(), request);
+    }
+
+    /**
+     * Запуск входа; отмена возвращенного future пропускает еще не начатые стадии
+     */
+    CompletableFuture<AuthDtos.TokenResponse> submit(Tenant tenant, AuthDtos.LoginRequest request) {
+        CompletableFuture<AuthDtos.TokenResponse> login = new CompletableFuture<>();
+        lookup.submit(login, () -> findUser(tenant, request.getPrincipal()))
+                .thenCompose(user -> verify.submit(login, () -> checkPassword(user, request)))
+                .thenCompose(user -> issueTokens(login, tenant, user))
+                .whenComplete((response, error) -> {
+                    if (error == null) {
+                        login.complete(response);
+                    } else {
+                        login.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    }
+                });
+        return login;
+    }
+
+    private UserCredentials findUser(Tenant tenant, String principal) {
+        return userRepository.findCredentialsByPrincipal(tenant.id(), principal)
+                .orElseThrow(() -> {
+                    log.warn("User not found: {}", principal);
+                    authEventWriter.publish(AuthEventType.LOGIN_FAILURE, null, principal);
+                    return AuthException.invalidCredentials();
+                });
+    }
+
+    private UserCredentials checkPassword(UserCredentials user, AuthDtos.LoginRequest request) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        boolean matched = passwordEncoder.matches(request.getPassword(), user.password());
+        event.end("matches", matched);
+        if (!matched) {
+            log.warn("Incorrect password for user: {}", request.getPrincipal());
+            authEventWriter.publish(AuthEventType.LOGIN_FAILURE, user.id(), request.getPrincipal());
+            throw AuthException.invalidCredentials();
+        }
+
+        if (!user.enabled()){
+            log.warn("User is disabled");
+            authEventWriter.publish(AuthEventType.LOGIN_FAILURE, user.id(), request.getPrincipal());
+            throw AuthException.userDisabled();
+        }
+        return user;
+    }
+
+    private CompletableFuture<AuthDtos.TokenResponse> issueTokens(CompletableFuture<?> login, Tenant tenant,
+                                                                  UserCredentials user) {
+        TokenTtlPolicy ttlPolicy = jwtService.accessTtlPolicy();
+        long expiresIn = ttlPolicy.nextTtl();
+        String subject = jwtService.subjectFor(user.id(), user.email());
+        CompletableFuture<String> accessToken = sign.submit(login,
+                () -> jwtService.generateAccessToken(tenant, subject, expiresIn));
+        CompletableFuture<String> refreshToken = sign.submit(login,
+                () -> jwtService.generateRefreshToken(tenant, subject));
+
+        return accessToken.thenCombine(refreshToken, (access, refresh) -> {
+            log.info("User logged in successfully: {}", user.email());
+            authEventWriter.publish(AuthEventType.LOGIN_SUCCESS, user.id(), user.email());
+            return new AuthDtos.TokenResponse(user.id(), access, refresh, expiresIn, ttlPolicy.refreshAfter(expiresIn));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lookup.executor.shutdown();
+        verify.executor.shutdown();
+        sign.executor.shutdown();
+    }
+
+    /**
+     * Стадия конвейера: пул фиксированного размера с ограниченной очередью и метриками
+     */
+    private static final class Stage {
+
+        private final ThreadPoolExecutor executor;
+        private final Timer queueTime;
+        private final Timer executionTime;
+        private final Counter rejected;
+        private final Counter cancelled;
+
+        private Stage(String name, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "login-" + name + "-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.queueTime = Timer.builder("auth.login.stage.queue").tag("stage", name)
+                    .description("Время ожидания в очереди стадии входа").register(meterRegistry);
+            this.executionTime = Timer.builder("auth.login.stage").tag("stage", name)
+                    .description("Время выполнения стадии входа").register(meterRegistry);
+            this.rejected = Counter.builder("auth.login.stage.rejected").tag("stage", name)
+                    .description("Запросы, отклоненные переполненной стадией").register(meterRegistry);
+            this.cancelled = Counter.builder("auth.login.stage.cancelled").tag("stage", name)
+                    .description("Задачи, пропущенные после отмены входа").register(meterRegistry);
+            Gauge.builder("auth.login.stage.queue.size", executor, e -> e.getQueue().size())
+                    .tag("stage", name).register(meterRegistry);
+            Gauge.builder("auth.login.stage.active", executor, ThreadPoolExecutor::getActiveCount)
+                    .tag("stage", name).register(meterRegistry);
+        }
+
+        /**
+         * @param login вход, к которому относится задача; если он уже отменен, задача не выполняется
+         */
+        private <T> CompletableFuture<T> submit(CompletableFuture<?> login, Supplier<T> work) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            if (login.isCancelled()) {
+                cancelled.increment();
+                result.cancel(false);
+                return result;
+            }
+            long enqueuedAt = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    long startedAt = System.nanoTime();
+                    queueTime.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                    if (login.isCancelled()) {
+                        cancelled.increment();
+                        result.cancel(false);
+                        return;
+                    }
+                    // Время стадии пишется до завершения future, чтобы следующая стадия видела его записанным
+                    T value;
+                    try {
+                        value = work.get();
+                    } catch (Throwable e) {
+                        executionTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                        result.completeExceptionally(e);
+                        return;
+                    }
+                    executionTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    result.complete(value);
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                result.completeExceptionally(AuthException.serviceOverloaded());
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.basic.project.service;
+
+import com.basic.project.dto.AuthDtos;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одновременных обновлений токена одного пользователя (single-flight).
+ * Первый запрос выполняет поиск пользователя и выпуск токенов, остальные запросы
+ * в пределах окна получают ту же пару. Присоединиться может только refresh токен,
+ * выпущенный раньше начала обновления, поэтому только что выданный токен всегда
+ * приводит к новой ротации.
+ */
+@Component
+public class RefreshCoalescer {
+
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final long windowMillis;
+
+    public RefreshCoalescer(@Value("${auth.refresh.coalesce-window:2000}") long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * @param subject  субъект refresh токена
+     * @param issuedAt iat refresh токена в секундах
+     * @param refresh  поиск пользователя и выпуск новой пары
+     */
+    public AuthDtos.TokenResponse refresh(String subject, long issuedAt, Supplier<AuthDtos.TokenResponse> refresh) {
+        while (true) {
+            Flight current = flights.get(subject);
+            if (current != null && current.accepts(issuedAt)) {
+                return current.join();
+            }
+            Flight flight = new Flight(System.currentTimeMillis());
+            boolean leader = current == null
+                    ? flights.putIfAbsent(subject, flight) == null
+                    : flights.replace(subject, current, flight);
+            if (leader) {
+                return lead(subject, flight, refresh);
+            }
+        }
+    }
+
+    /**
+     * Число запросов, ожидающих текущее обновление субъекта
+     */
+    int waiting(String subject) {
+        Flight flight = flights.get(subject);
+        return flight == null ? 0 : flight.getNumberOfDependents();
+    }
+
+    private AuthDtos.TokenResponse lead(String subject, Flight flight, Supplier<AuthDtos.TokenResponse> refresh) {
+        try {
+            AuthDtos.TokenResponse response = refresh.get();
+            flight.complete(response);
+            if (windowMillis > 0) {
+                CompletableFuture.delayedExecutor(windowMillis, TimeUnit.MILLISECONDS)
+                        .execute(() -> flights.remove(subject, flight));
+            } else {
+                flights.remove(subject, flight);
+            }
+            return response;
+        } catch (RuntimeException e) {
+            flights.remove(subject, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Текущее обновление для одного субъекта
+     */
+    private final class Flight extends CompletableFuture<AuthDtos.TokenResponse> {
+
+        private final long startedAt;
+        private volatile long completedAt;
+
+        private Flight(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public boolean complete(AuthDtos.TokenResponse value) {
+            completedAt = System.currentTimeMillis();
+            return super.complete(value);
+        }
+
+        private boolean accepts(long issuedAt) {
+            if (issuedAt >= startedAt / 1000) {
+                return false;
+            }
+            return !isDone() || (!isCompletedExceptionally() && System.currentTimeMillis() - completedAt <= windowMillis);
+        }
+
+        @Override
+        public AuthDtos.TokenResponse join() {
+            try {
+                return super.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
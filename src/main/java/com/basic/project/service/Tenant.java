@@ -0,0 +1,121 @@
+package com.basic.project.service;
+
+import com.basic.project.entity.UserEntity;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+
+import java.time.Duration;
+
+/**
+ * Tenant (продукт) со своими ключами подписи access/refresh токенов и лимитами запросов.
+ * Экземпляр неизменяемый, кроме состояния bucket'ов, и живет в снимке {@link TenantRegistry}.
+ * У tenant'а по умолчанию общие ключи JwtService и общие лимиты rate-limit.*, токены без claim tid.
+ */
+public final class Tenant {
+
+    public static final String DEFAULT_ID = UserEntity.DEFAULT_TENANT;
+
+    private final String id;
+    private final JwtKeyRing accessKeys;
+    private final JwtKeyRing refreshKeys;
+    private final Limits limits;
+    private final Bucket loginBucket;
+    private final Bucket registerBucket;
+    private final Bucket refreshBucket;
+
+    /**
+     * Tenant по умолчанию: лимиты задаются общими бинами RateLimitConfig
+     */
+    Tenant(JwtKeyRing accessKeys, JwtKeyRing refreshKeys) {
+        this.id = DEFAULT_ID;
+        this.accessKeys = accessKeys;
+        this.refreshKeys = refreshKeys;
+        this.limits = null;
+        this.loginBucket = null;
+        this.registerBucket = null;
+        this.refreshBucket = null;
+    }
+
+    /**
+     * @param previous прежняя версия tenant'а; при тех же лимитах ее bucket'ы переиспользуются,
+     *                 чтобы обновление конфигурации не сбрасывало счетчики
+     */
+    Tenant(String id, JwtKeyRing accessKeys, JwtKeyRing refreshKeys, Limits limits, Tenant previous) {
+        this.id = id;
+        this.accessKeys = accessKeys;
+        this.refreshKeys = refreshKeys;
+        this.limits = limits;
+        boolean sameLimits = previous != null && limits.equals(previous.limits);
+        this.loginBucket = sameLimits ? previous.loginBucket : limits.login().newBucket();
+        this.registerBucket = sameLimits ? previous.registerBucket : limits.register().newBucket();
+        this.refreshBucket = sameLimits ? previous.refreshBucket : limits.refresh().newBucket();
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public boolean isDefault() {
+        return limits == null;
+    }
+
+    public JwtKeyRing accessKeys() {
+        return accessKeys;
+    }
+
+    public JwtKeyRing refreshKeys() {
+        return refreshKeys;
+    }
+
+    /**
+     * Лимиты tenant'а; {@code null} у tenant'а по умолчанию
+     */
+    public Limits limits() {
+        return limits;
+    }
+
+    public Bucket loginBucket() {
+        return loginBucket;
+    }
+
+    public Bucket registerBucket() {
+        return registerBucket;
+    }
+
+    public Bucket refreshBucket() {
+        return refreshBucket;
+    }
+
+    @Override
+    public String toString() {
+        return "Tenant[" + id + "]";
+    }
+
+    /**
+     * Лимит: не больше requests запросов за periodMinutes минут
+     */
+    public record RateLimit(int requests, int periodMinutes) {
+
+        public RateLimit {
+            if (requests <= 0 || periodMinutes <= 0) {
+                throw new IllegalArgumentException("Rate limit must be positive: " + requests + "/" + periodMinutes);
+            }
+        }
+
+        Bucket newBucket() {
+            return Bucket.builder()
+                    .addLimit(Bandwidth.classic(requests, Refill.greedy(requests, Duration.ofMinutes(periodMinutes))))
+                    .build();
+        }
+    }
+
+    public record Limits(RateLimit login, RateLimit register, RateLimit refresh) {
+    }
+
+    /**
+     * Конфигурация tenant'а из источника (файл tenants.file)
+     */
+    public record Definition(String id, String accessSecret, String refreshSecret, Limits limits) {
+    }
+}
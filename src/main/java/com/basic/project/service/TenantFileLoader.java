@@ -0,0 +1,125 @@
+package com.basic.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Загрузка tenant'ов из файла в {@link TenantRegistry} с перезагрузкой без перезапуска.
+ * Файл применяется целиком: при ошибке остается прежний снимок.
+ * Формат файла (properties), лимиты необязательны - по умолчанию общие rate-limit.*:
+ * <pre>
+ * shop.access-secret=...
+ * shop.refresh-secret=...
+ * shop.login.requests=20
+ * shop.login.period=1
+ * shop.register.requests=3
+ * shop.register.period=60
+ * shop.refresh.requests=10
+ * shop.refresh.period=1
+ * </pre>
+ */
+@Slf4j
+@Component
+public class TenantFileLoader {
+
+    private final JwtService jwtService;
+    private final Path tenantsFile;
+    private final Tenant.Limits defaultLimits;
+    private FileTime lastModified;
+
+    public TenantFileLoader(
+            JwtService jwtService,
+            @Value("${tenants.file:}") String tenantsFile,
+            @Value("${rate-limit.login.requests:5}") int loginRequests,
+            @Value("${rate-limit.login.period:1}") int loginPeriod,
+            @Value("${rate-limit.register.requests:3}") int registerRequests,
+            @Value("${rate-limit.register.period:60}") int registerPeriod,
+            @Value("${rate-limit.refresh.requests:10}") int refreshRequests,
+            @Value("${rate-limit.refresh.period:1}") int refreshPeriod
+    ) {
+        this.jwtService = jwtService;
+        this.tenantsFile = tenantsFile.isBlank() ? null : Path.of(tenantsFile);
+        this.defaultLimits = new Tenant.Limits(
+                new Tenant.RateLimit(loginRequests, loginPeriod),
+                new Tenant.RateLimit(registerRequests, registerPeriod),
+                new Tenant.RateLimit(refreshRequests, refreshPeriod));
+        reloadIfChanged();
+    }
+
+    /**
+     * Проверка файла по расписанию; tenant'ы заменяются, только если файл изменился
+     */
+    @Scheduled(initialDelayString = "${tenants.reload-interval:30000}", fixedDelayString = "${tenants.reload-interval:30000}")
+    public synchronized void reloadIfChanged() {
+        if (tenantsFile == null) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(tenantsFile);
+            if (modified.equals(lastModified)) {
+                return;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(tenantsFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            jwtService.tenants().replace(parse(properties));
+            lastModified = modified;
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Failed to reload tenants from {}: {}", tenantsFile, e.getMessage());
+        }
+    }
+
+    List<Tenant.Definition> parse(Properties properties) {
+        Set<String> ids = new TreeSet<>();
+        for (String name : properties.stringPropertyNames()) {
+            int dot = name.indexOf('.');
+            if (dot <= 0) {
+                throw new IllegalArgumentException("Unexpected property " + name);
+            }
+            ids.add(name.substring(0, dot));
+        }
+        List<Tenant.Definition> definitions = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            definitions.add(new Tenant.Definition(id,
+                    secret(properties, id, "access-secret"),
+                    secret(properties, id, "refresh-secret"),
+                    new Tenant.Limits(
+                            limit(properties, id, "login", defaultLimits.login()),
+                            limit(properties, id, "register", defaultLimits.register()),
+                            limit(properties, id, "refresh", defaultLimits.refresh()))));
+        }
+        return definitions;
+    }
+
+    private String secret(Properties properties, String id, String name) {
+        String secret = properties.getProperty(id + "." + name);
+        if (secret == null) {
+            throw new IllegalArgumentException(id + "." + name + " is not set");
+        }
+        jwtService.validateSecret(secret.trim(), "Tenant " + id + " " + name);
+        return secret.trim();
+    }
+
+    private static Tenant.RateLimit limit(Properties properties, String id, String type, Tenant.RateLimit fallback) {
+        String requests = properties.getProperty(id + "." + type + ".requests");
+        String period = properties.getProperty(id + "." + type + ".period");
+        return new Tenant.RateLimit(
+                requests == null ? fallback.requests() : Integer.parseInt(requests.trim()),
+                period == null ? fallback.periodMinutes() : Integer.parseInt(period.trim()));
+    }
+}
@@ -0,0 +1,157 @@
+package com.basic.project.service;
+
+import com.basic.project.exception.AuthException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Конфигурация tenant'ов в памяти.
+ * Снимок (tenant'ы по id и индексы kid -> tenant для проверки токенов) неизменяемый и подменяется целиком,
+ * поэтому выпуск и проверка токенов читают его без блокировок и без обращений к БД.
+ * kid выводится из секрета, поэтому одинаковые секреты у разных tenant'ов запрещены.
+ */
+@Slf4j
+public class TenantRegistry {
+
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final Tenant defaultTenant;
+    private final Duration accessRetention;
+    private final Duration refreshRetention;
+    private final Clock clock;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of());
+
+    TenantRegistry(JwtKeyRing accessKeys, JwtKeyRing refreshKeys, Duration accessRetention, Duration refreshRetention) {
+        this.defaultTenant = new Tenant(accessKeys, refreshKeys);
+        this.accessRetention = accessRetention;
+        this.refreshRetention = refreshRetention;
+        this.clock = Clock.systemUTC();
+    }
+
+    public Tenant defaultTenant() {
+        return defaultTenant;
+    }
+
+    /**
+     * Tenant по id; пустой id и id по умолчанию - tenant по умолчанию, неизвестный - {@code null}
+     */
+    public Tenant find(String id) {
+        if (id == null || id.isEmpty() || Tenant.DEFAULT_ID.equals(id)) {
+            return defaultTenant;
+        }
+        return snapshot.tenants().get(id);
+    }
+
+    /**
+     * Tenant запроса; неизвестный id - ошибка клиента
+     */
+    public Tenant resolve(String id) {
+        Tenant tenant = find(id);
+        if (tenant == null) {
+            throw AuthException.unknownTenant(id);
+        }
+        return tenant;
+    }
+
+    /**
+     * Tenant'ы снимка, без tenant'а по умолчанию
+     */
+    public Collection<Tenant> tenants() {
+        return snapshot.tenants().values();
+    }
+
+    public int size() {
+        return snapshot.tenants().size();
+    }
+
+    /**
+     * Ключ проверки access токена tenant'а по kid
+     */
+    JwtKeyRing.SigningKey findAccessKey(String kid) {
+        Tenant tenant = kid == null ? null : snapshot.accessKids().get(kid);
+        return tenant == null ? null : tenant.accessKeys().find(kid);
+    }
+
+    /**
+     * Ключ проверки refresh токена tenant'а по kid
+     */
+    JwtKeyRing.SigningKey findRefreshKey(String kid) {
+        Tenant tenant = kid == null ? null : snapshot.refreshKids().get(kid);
+        return tenant == null ? null : tenant.refreshKeys().find(kid);
+    }
+
+    /**
+     * Замена всех tenant'ов. Сменившийся секрет ротирует ключ: прежний проверяет подписи еще retention
+     * (на копии набора ключей, текущий снимок не меняется). Неизменившиеся лимиты сохраняют свои bucket'ы.
+     * Tenant'ы, пропавшие из {@code definitions}, удаляются, их токены перестают проходить проверку.
+     */
+    public synchronized void replace(Collection<Tenant.Definition> definitions) {
+        Snapshot current = snapshot;
+        Map<String, Tenant> tenants = new HashMap<>();
+        Map<String, Tenant> accessKids = new HashMap<>();
+        Map<String, Tenant> refreshKids = new HashMap<>();
+
+        for (Tenant.Definition definition : definitions) {
+            String id = definition.id();
+            if (id == null || !ID.matcher(id).matches() || Tenant.DEFAULT_ID.equals(id)) {
+                throw new IllegalArgumentException("Invalid tenant id: " + id);
+            }
+            if (tenants.containsKey(id)) {
+                throw new IllegalArgumentException("Duplicate tenant id: " + id);
+            }
+            Tenant previous = current.tenants().get(id);
+            Tenant tenant = new Tenant(id,
+                    keyRing("Access", id, definition.accessSecret(), accessRetention,
+                            previous == null ? null : previous.accessKeys()),
+                    keyRing("Refresh", id, definition.refreshSecret(), refreshRetention,
+                            previous == null ? null : previous.refreshKeys()),
+                    definition.limits(), previous);
+            tenants.put(id, tenant);
+            index(accessKids, tenant, tenant.accessKeys(), defaultTenant.accessKeys());
+            index(refreshKids, tenant, tenant.refreshKeys(), defaultTenant.refreshKeys());
+        }
+
+        snapshot = new Snapshot(Map.copyOf(tenants), Map.copyOf(accessKids), Map.copyOf(refreshKids));
+        if (tenants.size() != current.tenants().size()) {
+            log.info("Tenants: {} -> {}", current.tenants().size(), tenants.size());
+        }
+    }
+
+    private JwtKeyRing keyRing(String type, String tenant, String secret, Duration retention, JwtKeyRing previous) {
+        if (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < JwtService.MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException(type + " secret of tenant " + tenant
+                    + " must be at least " + JwtService.MIN_SECRET_BYTES + " bytes long");
+        }
+        String kid = JwtKeyRing.deriveKid(secret);
+        if (previous == null) {
+            return new JwtKeyRing(type + " " + tenant, tenant, secret, retention, clock);
+        }
+        if (previous.active().kid().equals(kid)) {
+            return previous;
+        }
+        JwtKeyRing rotated = previous.copy();
+        rotated.rotate(kid, Map.of(kid, secret));
+        return rotated;
+    }
+
+    private static void index(Map<String, Tenant> kids, Tenant tenant, JwtKeyRing keyRing, JwtKeyRing shared) {
+        for (JwtKeyRing.SigningKey key : keyRing.verifyingKeys()) {
+            Tenant owner = kids.putIfAbsent(key.kid(), tenant);
+            if ((owner != null && owner != tenant) || shared.find(key.kid()) != null) {
+                throw new IllegalArgumentException("Tenant " + tenant.id() + " reuses signing key " + key.kid()
+                        + (owner != null ? " of tenant " + owner.id() : " of the default key set"));
+            }
+        }
+    }
+
+    private record Snapshot(Map<String, Tenant> tenants, Map<String, Tenant> accessKids,
+                            Map<String, Tenant> refreshKids) {
+    }
+}
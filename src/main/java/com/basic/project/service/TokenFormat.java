@@ -0,0 +1,14 @@
+package com.basic.project.service;
+
+/**
+ * Формат выпускаемых токенов (jwt.format).
+ * Проверяются оба формата независимо от настройки, чтобы переход не разлогинивал пользователей.
+ */
+public enum TokenFormat {
+
+    /** HS512, sub - email, type: access/refresh */
+    STANDARD,
+
+    /** HS256, sub - id пользователя, t: a/r */
+    COMPACT
+}
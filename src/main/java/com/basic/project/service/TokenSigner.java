@@ -0,0 +1,76 @@
+package com.basic.project.service;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Сборка JWS в компактной форме без jjwt: заголовок берется готовым из ключа,
+ * payload пишется напрямую, подпись считается через {@link HmacEngine} ключа.
+ * Поддерживает стандартный формат (HS512, email и type) и компактный (HS256, id и t).
+ * Ключ tenant'а добавляет в оба формата claim tid.
+ */
+final class TokenSigner {
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+    private static final JsonStringEncoder JSON_STRING = JsonStringEncoder.getInstance();
+
+    private TokenSigner() {
+    }
+
+    /**
+     * Токен с claims sub, type, iat, exp (секунды epoch) и tid ключа
+     */
+    static String sign(JwtKeyRing.SigningKey key, String subject, String type, long issuedAt, long expiresAt) {
+        StringBuilder payload = new StringBuilder(64 + subject.length());
+        payload.append("{\"sub\":\"");
+        JSON_STRING.quoteAsString(subject, payload);
+        payload.append("\",\"type\":\"").append(type)
+                .append("\",\"iat\":").append(issuedAt)
+                .append(",\"exp\":").append(expiresAt);
+        appendTenant(payload, key);
+        payload.append('}');
+
+        return assemble(key.encodedHeader(), payload, key.engine());
+    }
+
+    /**
+     * Компактный HS256 токен: sub - id пользователя, тип одной буквой в claim t
+     */
+    static String signCompact(JwtKeyRing.SigningKey key, long userId, char typeCode, long issuedAt, long expiresAt) {
+        StringBuilder payload = new StringBuilder(64)
+                .append("{\"sub\":\"").append(userId)
+                .append("\",\"t\":\"").append(typeCode)
+                .append("\",\"iat\":").append(issuedAt)
+                .append(",\"exp\":").append(expiresAt);
+        appendTenant(payload, key);
+        payload.append('}');
+        return assemble(key.compactHeader(), payload, key.compactEngine());
+    }
+
+    private static void appendTenant(StringBuilder payload, JwtKeyRing.SigningKey key) {
+        if (key.tenant() != null) {
+            payload.append(",\"tid\":\"");
+            JSON_STRING.quoteAsString(key.tenant(), payload);
+            payload.append('"');
+        }
+    }
+
+    private static String assemble(String encodedHeader, CharSequence payload, HmacEngine engine) {
+        String signingInput = encodedHeader + '.'
+                + BASE64URL.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] signature = engine.sign(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + BASE64URL.encodeToString(signature);
+    }
+
+    /**
+     * Base64url заголовка JWS с алгоритмом и идентификатором ключа
+     */
+    static String encodeHeader(String algorithm, String kid) {
+        StringBuilder header = new StringBuilder("{\"alg\":\"").append(algorithm).append("\",\"kid\":\"");
+        JSON_STRING.quoteAsString(kid, header);
+        header.append("\"}");
+        return BASE64URL.encodeToString(header.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
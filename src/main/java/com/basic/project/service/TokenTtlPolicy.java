@@ -0,0 +1,64 @@
+package com.basic.project.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Время жизни access токена с джиттером и рекомендуемый момент его обновления.
+ * Разброс не дает клиентам, вошедшим одновременно, обновлять токены синхронно.
+ */
+public class TokenTtlPolicy {
+
+    private final long ttl;
+    private final double jitter;
+    private final double refreshFrom;
+    private final double refreshTo;
+    private final RandomGenerator random;
+
+    /**
+     * @param ttl         максимальное время жизни токена в секундах
+     * @param jitter      доля ttl, на которую срок жизни может быть случайно сокращен (0 - без джиттера)
+     * @param refreshFrom нижняя граница рекомендуемого обновления как доля фактического ttl
+     * @param refreshTo   верхняя граница рекомендуемого обновления как доля фактического ttl
+     */
+    public TokenTtlPolicy(long ttl, double jitter, double refreshFrom, double refreshTo) {
+        this(ttl, jitter, refreshFrom, refreshTo, null);
+    }
+
+    TokenTtlPolicy(long ttl, double jitter, double refreshFrom, double refreshTo, RandomGenerator random) {
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("TTL jitter must be in [0, 1): " + jitter);
+        }
+        if (refreshFrom <= 0 || refreshFrom > refreshTo || refreshTo > 1) {
+            throw new IllegalArgumentException("Refresh window must satisfy 0 < from <= to <= 1: "
+                    + refreshFrom + ".." + refreshTo);
+        }
+        this.ttl = ttl;
+        this.jitter = jitter;
+        this.refreshFrom = refreshFrom;
+        this.refreshTo = refreshTo;
+        this.random = random;
+    }
+
+    /**
+     * Срок жизни очередного токена: от ttl * (1 - jitter) до ttl
+     */
+    public long nextTtl() {
+        if (jitter == 0) {
+            return ttl;
+        }
+        return ttl - (long) (ttl * jitter * random().nextDouble());
+    }
+
+    /**
+     * Через сколько секунд клиенту стоит обновить токен с указанным сроком жизни
+     */
+    public long refreshAfter(long tokenTtl) {
+        double fraction = refreshFrom == refreshTo ? refreshFrom : random().nextDouble(refreshFrom, refreshTo);
+        return Math.max(1, (long) (tokenTtl * fraction));
+    }
+
+    private RandomGenerator random() {
+        return random != null ? random : ThreadLocalRandom.current();
+    }
+}
@@ -0,0 +1,298 @@
+package com.basic.project.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+/**
+ * Низкоаллокационная проверка токенов.
+ * Токен читается из исходной строки по смещению, ключ выбирается по kid из {@link JwtKeyRing},
+ * HMAC считается по сырым байтам,
+ * а из payload потоково читаются только sub, type, iat и exp.
+ * Принимаются оба формата: стандартный HS512 с claim type и компактный HS256 с claim t и числовым sub;
+ * алгоритм и форма claims должны совпадать. Claim tid должен совпадать с tenant'ом ключа подписи
+ * (у ключей общего набора tid отсутствует), поэтому токен одного tenant'а не проходит с ключом другого.
+ */
+final class TokenVerifier {
+
+    static final String ALGORITHM = "HS512";
+    static final String COMPACT_ALGORITHM = "HS256";
+    private static final int SIGNATURE_LENGTH = 64;
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    private static final byte[] BASE64URL = new byte[128];
+
+    /** Результат проверки, когда claims не нужны вызывающему коду */
+    static final VerifiedToken VALID = new VerifiedToken(null, null, 0L, 0L, null);
+
+    static {
+        java.util.Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    /**
+     * Поиск ключа проверки по kid; {@code null}, если ключ неизвестен
+     */
+    @FunctionalInterface
+    interface KeyLookup {
+        JwtKeyRing.SigningKey find(String kid);
+    }
+
+    private final char[] expectedType;
+    private final char expectedTypeCode;
+    private final KeyLookup keys;
+
+    TokenVerifier(JwtKeyRing keyRing, String expectedType) {
+        this(keyRing::find, expectedType);
+    }
+
+    TokenVerifier(KeyLookup keys, String expectedType) {
+        this.expectedType = expectedType.toCharArray();
+        this.expectedTypeCode = expectedType.charAt(0);
+        this.keys = keys;
+    }
+
+    /**
+     * Проверка токена, начинающегося с позиции {@code from} строки {@code source}.
+     * Возвращает {@code null}, если токен недействителен.
+     */
+    VerifiedToken verify(String source, int from, boolean withClaims) {
+        int end = source.length();
+        if (from < 0 || end - from > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        int headerEnd = source.indexOf('.', from);
+        if (headerEnd <= from) {
+            return null;
+        }
+        int payloadEnd = source.indexOf('.', headerEnd + 1);
+        if (payloadEnd <= headerEnd + 1 || payloadEnd == end - 1 || source.indexOf('.', payloadEnd + 1) >= 0) {
+            return null;
+        }
+
+        Scratch scratch = SCRATCH.get();
+        try {
+            int headerLength = decode(source, from, headerEnd, scratch.decoded);
+            HmacEngine engine = headerLength < 0 ? null : resolveEngine(scratch.decoded, headerLength, scratch);
+            if (engine == null) {
+                return null;
+            }
+
+            int signatureLength = engine.length();
+            if (decode(source, payloadEnd + 1, end, scratch.signature) != signatureLength) {
+                return null;
+            }
+            int signedLength = payloadEnd - from;
+            byte[] input = scratch.input(signedLength);
+            for (int i = 0; i < signedLength; i++) {
+                char c = source.charAt(from + i);
+                if (c > 0x7F) {
+                    return null;
+                }
+                input[i] = (byte) c;
+            }
+            engine.sign(input, signedLength, scratch.expected, 0);
+            if (!constantTimeEquals(scratch.expected, scratch.signature, signatureLength)) {
+                return null;
+            }
+
+            int payloadLength = decode(source, headerEnd + 1, payloadEnd, scratch.decoded);
+            if (payloadLength < 0) {
+                return null;
+            }
+            return readClaims(scratch.decoded, payloadLength, withClaims, scratch.compact, scratch.tenant);
+        } catch (IOException | GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Проверка заголовка и выбор HMAC по kid и alg;
+     * формат токена и tenant ключа запоминаются в {@code scratch.compact} и {@code scratch.tenant}
+     */
+    private HmacEngine resolveEngine(byte[] json, int length, Scratch scratch) throws IOException {
+        String algorithm = null;
+        String kid = null;
+        try (JsonParser parser = JSON.createParser(json, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "alg" -> algorithm = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    case "kid" -> {
+                        if (value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        kid = parser.getText();
+                    }
+                    case "zip", "crit" -> {
+                        return null;
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        scratch.compact = COMPACT_ALGORITHM.equals(algorithm);
+        if (!scratch.compact && !ALGORITHM.equals(algorithm)) {
+            return null;
+        }
+        JwtKeyRing.SigningKey key = keys.find(kid);
+        if (key == null) {
+            return null;
+        }
+        scratch.tenant = key.tenant();
+        return scratch.compact ? key.compactEngine() : key.engine();
+    }
+
+    private VerifiedToken readClaims(byte[] json, int length, boolean withClaims, boolean compact, String tenant)
+            throws IOException {
+        String subject = null;
+        boolean typeMatches = false;
+        boolean tenantMatches = tenant == null;
+        long issuedAt = -1;
+        long expiresAt = -1;
+        long notBefore = -1;
+        try (JsonParser parser = JSON.createParser(json, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "type" -> typeMatches = !compact && value == JsonToken.VALUE_STRING
+                            && textEquals(parser, expectedType);
+                    case "t" -> typeMatches = compact && value == JsonToken.VALUE_STRING
+                            && parser.getTextLength() == 1
+                            && parser.getTextCharacters()[parser.getTextOffset()] == expectedTypeCode;
+                    case "iat" -> issuedAt = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                    case "exp" -> expiresAt = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                    case "nbf" -> notBefore = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                    case "tid" -> tenantMatches = tenant != null && value == JsonToken.VALUE_STRING
+                            && textEquals(parser, tenant);
+                    case "sub" -> {
+                        if (withClaims && value == JsonToken.VALUE_STRING) {
+                            subject = parser.getText();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        long now = System.currentTimeMillis() / 1000;
+        if (!typeMatches || !tenantMatches || expiresAt <= now || notBefore > now) {
+            return null;
+        }
+        if (!withClaims) {
+            return VALID;
+        }
+        Long userId = null;
+        if (compact) {
+            try {
+                userId = Long.valueOf(subject);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return new VerifiedToken(subject, userId, issuedAt, expiresAt, tenant);
+    }
+
+    private static boolean textEquals(JsonParser parser, String expected) throws IOException {
+        if (parser.getTextLength() != expected.length()) {
+            return false;
+        }
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        for (int i = 0; i < expected.length(); i++) {
+            if (text[offset + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean textEquals(JsonParser parser, char[] expected) throws IOException {
+        if (parser.getTextLength() != expected.length) {
+            return false;
+        }
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        for (int i = 0; i < expected.length; i++) {
+            if (text[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Base64url без паддинга из {@code source[from, to)} в {@code target}.
+     * Возвращает число байт или -1 при некорректном вводе/переполнении
+     * и при ненулевых лишних битах последнего символа (неканоническая запись тех же байт).
+     */
+    private static int decode(String source, int from, int to, byte[] target) {
+        int length = to - from;
+        if (length % 4 == 1 || length / 4 * 3 + 2 > target.length) {
+            return -1;
+        }
+        int bits = 0;
+        int bitCount = 0;
+        int written = 0;
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            int value = c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                target[written++] = (byte) (bits >> bitCount);
+            }
+        }
+        if ((bits & ((1 << bitCount) - 1)) != 0) {
+            return -1;
+        }
+        return written;
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b, int length) {
+        int diff = 0;
+        for (int i = 0; i < length; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    /**
+     * Переиспользуемые буферы потока
+     */
+    private static final class Scratch {
+        private final byte[] decoded = new byte[MAX_TOKEN_LENGTH];
+        private final byte[] signature = new byte[SIGNATURE_LENGTH + 2];
+        private final byte[] expected = new byte[SIGNATURE_LENGTH];
+        private byte[] input = new byte[1024];
+        private boolean compact;
+        private String tenant;
+
+        private byte[] input(int length) {
+            if (input.length < length) {
+                input = new byte[Math.max(length, input.length * 2)];
+            }
+            return input;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.basic.project.service;
+
+/**
+ * Claims, прочитанные из проверенного токена (время в секундах epoch).
+ * {@code userId} заполнен только для компактного формата, где subject - id пользователя;
+ * {@code tenant} - claim tid, {@code null} у токенов общего набора ключей.
+ */
+public record VerifiedToken(String subject, Long userId, long issuedAt, long expiresAt, String tenant) {
+}
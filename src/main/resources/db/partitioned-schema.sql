@@ -0,0 +1,67 @@
+-- Схема профиля partitioned (PostgreSQL 15+): users разбита на 16 hash-партиций по email_normalized.
+-- Поиск по email и вход попадают в одну партицию; уникальность email в tenant'е держит
+-- UNIQUE (tenant_id, email_normalized) (содержит ключ партиционирования),
+-- уникальность username в tenant'е - первичный ключ username_index.
+-- Первичный ключ users обязан включать ключ партиционирования, поэтому поиск по id (refresh в компактном
+-- формате, UPDATE из AuthEventWriter) проверяет индекс каждой партиции.
+-- Смена email переносит строку в другую партицию; ON UPDATE CASCADE для username_index при таком
+-- переносе корректен начиная с PostgreSQL 15.
+-- Число партиций меняется только пересозданием таблицы с переносом данных.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                    BIGSERIAL    NOT NULL,
+    tenant_id             VARCHAR(64)  NOT NULL DEFAULT 'default',
+    username              VARCHAR(255) NOT NULL,
+    password              VARCHAR(255) NOT NULL,
+    email                 VARCHAR(255) NOT NULL,
+    email_normalized      VARCHAR(255) NOT NULL,
+    phone                 VARCHAR(255),
+    enabled               BOOLEAN      NOT NULL,
+    created_at            TIMESTAMP(6) NOT NULL,
+    updated_at            TIMESTAMP(6),
+    last_login_at         TIMESTAMP(6),
+    failed_login_attempts INTEGER      NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, email_normalized),
+    CONSTRAINT uk_users_tenant_email UNIQUE (tenant_id, email_normalized)
+) PARTITION BY HASH (email_normalized);
+
+CREATE TABLE IF NOT EXISTS users_p0 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 0);
+CREATE TABLE IF NOT EXISTS users_p1 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 1);
+CREATE TABLE IF NOT EXISTS users_p2 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 2);
+CREATE TABLE IF NOT EXISTS users_p3 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 3);
+CREATE TABLE IF NOT EXISTS users_p4 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 4);
+CREATE TABLE IF NOT EXISTS users_p5 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 5);
+CREATE TABLE IF NOT EXISTS users_p6 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 6);
+CREATE TABLE IF NOT EXISTS users_p7 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 7);
+CREATE TABLE IF NOT EXISTS users_p8 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 8);
+CREATE TABLE IF NOT EXISTS users_p9 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 9);
+CREATE TABLE IF NOT EXISTS users_p10 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 10);
+CREATE TABLE IF NOT EXISTS users_p11 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 11);
+CREATE TABLE IF NOT EXISTS users_p12 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 12);
+CREATE TABLE IF NOT EXISTS users_p13 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 13);
+CREATE TABLE IF NOT EXISTS users_p14 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 14);
+CREATE TABLE IF NOT EXISTS users_p15 PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER 15);
+
+CREATE TABLE IF NOT EXISTS username_index (
+    tenant_id           VARCHAR(64)  NOT NULL,
+    username_normalized VARCHAR(255) NOT NULL,
+    user_id             BIGINT       NOT NULL,
+    email_normalized    VARCHAR(255) NOT NULL,
+    PRIMARY KEY (tenant_id, username_normalized),
+    -- Отложенная проверка: Hibernate может записать строку индекса раньше UPDATE users в той же транзакции
+    CONSTRAINT fk_username_index_user FOREIGN KEY (user_id, email_normalized)
+        REFERENCES users (id, email_normalized) ON DELETE CASCADE ON UPDATE CASCADE
+        DEFERRABLE INITIALLY DEFERRED
+);
+
+CREATE INDEX IF NOT EXISTS idx_username_index_user ON username_index (user_id);
+
+CREATE TABLE IF NOT EXISTS auth_events (
+    id         BIGSERIAL    PRIMARY KEY,
+    user_id    BIGINT,
+    type       VARCHAR(32)  NOT NULL,
+    principal  VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_auth_events_user ON auth_events (user_id, created_at);
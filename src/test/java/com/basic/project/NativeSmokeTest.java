@@ -0,0 +1,82 @@
+package com.basic.project;
+
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.service.JwtService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сквозной сценарий по HTTP: регистрация, вход, проверка и обновление токена.
+ * Самодостаточен (H2, без внешних свойств), поэтому запускается и в native-режиме: mvn -PnativeTest test.
+ * L2 кэш выключен, как и при запуске native-образа: конфигурация Ehcache из XML в образе не поддерживается.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:native-smoke;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+class NativeSmokeTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void registerLoginValidateRefresh() {
+        AuthDtos.RegisterRequest register = new AuthDtos.RegisterRequest();
+        register.setUsername("smoke");
+        register.setEmail("smoke@example.com");
+        register.setPassword("Password123!");
+        register.setPhone("+12345678901");
+        assertEquals(HttpStatus.OK, rest.postForEntity("/api/auth/register", register, JsonNode.class).getStatusCode());
+
+        AuthDtos.LoginRequest login = new AuthDtos.LoginRequest();
+        login.setPrincipal("smoke@example.com");
+        login.setPassword("Password123!");
+        ResponseEntity<JsonNode> tokens = rest.postForEntity("/api/auth/login", login, JsonNode.class);
+        assertEquals(HttpStatus.OK, tokens.getStatusCode());
+        String accessToken = tokens.getBody().get("accessToken").asText();
+        String refreshToken = tokens.getBody().get("refreshToken").asText();
+
+        assertEquals(Boolean.TRUE, validate(accessToken));
+        assertEquals(Boolean.TRUE, validate(jwtService.generateAccessToken("smoke@example.com")));
+        assertEquals(Boolean.FALSE, validate("not-a-token"));
+
+        AuthDtos.RefreshRequest refresh = new AuthDtos.RefreshRequest();
+        refresh.setRefreshToken(refreshToken);
+        ResponseEntity<JsonNode> refreshed = rest.postForEntity("/api/auth/refresh", refresh, JsonNode.class);
+        assertEquals(HttpStatus.OK, refreshed.getStatusCode());
+        assertEquals(Boolean.TRUE, validate(refreshed.getBody().get("accessToken").asText()));
+    }
+
+    @Test
+    void rejectedLoginRendersErrorBody() {
+        AuthDtos.LoginRequest login = new AuthDtos.LoginRequest();
+        login.setPrincipal("missing@example.com");
+        login.setPassword("Password123!");
+        ResponseEntity<JsonNode> response = rest.postForEntity("/api/auth/login", login, JsonNode.class);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertEquals("INVALID_CREDENTIALS", response.getBody().get("errorCode").asText());
+    }
+
+    private Boolean validate(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return rest.postForEntity("/api/auth/validate", new HttpEntity<>(headers), Boolean.class).getBody();
+    }
+}
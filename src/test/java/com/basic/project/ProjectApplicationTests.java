@@ -1,13 +1,34 @@
 package com.basic.project;
 
+import com.basic.project.controller.KeyController;
+import com.basic.project.jfr.JfrEndpoint;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
+@ActiveProfiles("test")
 class ProjectApplicationTests {
 
+	@Autowired
+	private ApplicationContext context;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void jfrEndpointRequiresConfiguredPassword() {
+		assertEquals(0, context.getBeanNamesForType(JfrEndpoint.class).length);
+	}
+
+	@Test
+	void keyEndpointRequiresConfiguredPassword() {
+		assertEquals(0, context.getBeanNamesForType(KeyController.class).length);
+	}
+
 }
@@ -0,0 +1,73 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.service.AuthService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Распределение задержки входа (p50/p99 в SampleTime) с журналом событий и без него.
+ * Каждый десятый вход с неверным паролем, чтобы журнал писал и счетчик неудач.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="AuthEventLoginLatencyBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(1)
+public class AuthEventLoginLatencyBenchmark {
+
+    private static final int USERS = 200;
+
+    @Param({"true", "false"})
+    private boolean events;
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+    private AuthDtos.LoginRequest[] valid;
+    private AuthDtos.LoginRequest[] invalid;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("auth.events.enabled=" + events, "logging.level.com.basic.project=WARN");
+        authService = context.getBean(AuthService.class);
+        BenchmarkContext.seedUsers(context, USERS);
+        valid = new AuthDtos.LoginRequest[USERS];
+        invalid = new AuthDtos.LoginRequest[USERS];
+        for (int i = 0; i < USERS; i++) {
+            valid[i] = request("user" + i + "@example.com", BenchmarkContext.PASSWORD);
+            invalid[i] = request("user" + i + "@example.com", "wrong-" + BenchmarkContext.PASSWORD);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object login() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int user = random.nextInt(USERS);
+        if (random.nextInt(10) == 0) {
+            try {
+                return authService.login(invalid[user]);
+            } catch (RuntimeException e) {
+                return e;
+            }
+        }
+        return authService.login(valid[user]);
+    }
+
+    private static AuthDtos.LoginRequest request(String principal, String password) {
+        AuthDtos.LoginRequest request = new AuthDtos.LoginRequest();
+        request.setPrincipal(principal);
+        request.setPassword(password);
+        return request;
+    }
+}
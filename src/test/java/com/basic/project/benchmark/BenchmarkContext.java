@@ -0,0 +1,71 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.ProjectApplication;
+import com.basic.project.entity.UserEntity;
+import com.basic.project.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Запуск приложения для бенчмарков на встроенной H2 вместо PostgreSQL
+ */
+final class BenchmarkContext {
+
+    static final String PASSWORD = "Password123!";
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Запуск со встроенным Tomcat на случайном порту
+     */
+    static ConfigurableApplicationContext startWeb(String... properties) {
+        return start(WebApplicationType.SERVLET, properties);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "logging.file.name=target/benchmark.log",
+                "server.port=0"));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(ProjectApplication.class)
+                .main(ProjectApplication.class)
+                .web(type)
+                .run(args.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /**
+     * Пользователи user0@example.com ... с паролем {@link #PASSWORD}
+     */
+    static List<UserEntity> seedUsers(ConfigurableApplicationContext context, int count) {
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<UserEntity> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UserEntity user = new UserEntity();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword(hash);
+            user.setPhone("+12345678901");
+            users.add(user);
+        }
+        return context.getBean(UserRepository.class).saveAll(users);
+    }
+}
@@ -0,0 +1,67 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.jfr.PasswordHashEvent;
+import com.basic.project.jfr.RateLimitEvent;
+import com.basic.project.jfr.RepositoryEvent;
+import com.basic.project.jfr.TokenEvent;
+import com.basic.project.service.JwtService;
+import com.basic.project.service.TokenFormat;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена событий JFR на горячем пути проверки и подписи токена: без записи (off) и при активной записи (on).
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="JfrOverheadBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JfrOverheadBenchmark {
+
+    @Param({"off", "on"})
+    private String recording;
+
+    private Recording jfr;
+    private JwtService jwtService;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(
+                "benchmark-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing",
+                "benchmark-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signing",
+                3600, 86400, 0, 1, 1, TokenFormat.STANDARD);
+        authorization = "Bearer " + jwtService.generateAccessToken("user@example.com");
+        if ("on".equals(recording)) {
+            jfr = new Recording();
+            List.of(TokenEvent.class, PasswordHashEvent.class, RepositoryEvent.class, RateLimitEvent.class)
+                    .forEach(jfr::enable);
+            jfr.setToDisk(false);
+            jfr.setMaxSize(64 * 1024 * 1024);
+            jfr.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (jfr != null) {
+            jfr.close();
+        }
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return jwtService.isValidAccessToken(authorization, 7);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateAccessToken("user@example.com", 3600);
+    }
+}
@@ -0,0 +1,63 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск пользователя при входе: полная UserEntity против проекции UserCredentials.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="LoginAllocationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginAllocationBenchmark {
+
+    private static final int USERS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate readOnly;
+    private String[] principals;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        userRepository = context.getBean(UserRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        BenchmarkContext.seedUsers(context, USERS);
+        principals = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            principals[i] = "user" + i + "@example.com";
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object entity() {
+        String principal = principals[next++ % USERS];
+        return readOnly.execute(status ->
+                userRepository.findByEmail(principal).orElseThrow().getPassword());
+    }
+
+    @Benchmark
+    public Object projection() {
+        String principal = principals[next++ % USERS];
+        return readOnly.execute(status ->
+                userRepository.findCredentialsByPrincipal(principal).orElseThrow().password());
+    }
+}
@@ -0,0 +1,138 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.service.JwtService;
+import com.basic.project.service.TokenFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM сборка против native-образа: время от запуска процесса до первого успешного POST /api/auth/validate
+ * и RSS процесса после первого запроса и после 1000 проверок (печатается в лог бенчмарка).
+ * Оба процесса стартуют с профилем startup и без L2 кэша, к PostgreSQL не подключаются.
+ * Сборка: mvn -Pnative package -DskipTests (jar и target/auth-service),
+ * затем mvn -Pbenchmark test-compile exec:exec -Djmh.args="NativeFootprintBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NativeFootprintBenchmark {
+
+    private static final String ACCESS_SECRET = "native-footprint-access-secret-at-least-64-bytes-long-for-hs512-signing";
+    private static final String REFRESH_SECRET = "native-footprint-refresh-secret-at-least-64-bytes-long-for-hs512-signing";
+
+    @Param({"jvm", "native"})
+    private String runtime;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private HttpRequest validate;
+    private Process process;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String token = new JwtService(ACCESS_SECRET, REFRESH_SECRET, 3600, 86400, 0, 1, 1, TokenFormat.STANDARD)
+                .generateAccessToken("footprint@example.com");
+        validate = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + "/api/auth/validate"))
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        List<String> command = new ArrayList<>();
+        if ("native".equals(runtime)) {
+            command.add(executable(System.getProperty("native.image", "target/auth-service")).toString());
+        } else {
+            command.addAll(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-jar",
+                    executable(System.getProperty("jvm.jar", "target/project-0.0.1-SNAPSHOT.jar")).toString()));
+        }
+        command.addAll(List.of(
+                "--spring.profiles.active=startup",
+                "--server.port=" + port,
+                "--jwt.access.secret=" + ACCESS_SECRET,
+                "--jwt.refresh.secret=" + REFRESH_SECRET,
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "--logging.level.root=WARN",
+                "--logging.file.name=target/benchmark.log"));
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        long firstRequestRss = rssKb();
+        for (int i = 0; i < 1000; i++) {
+            send();
+        }
+        System.out.printf("%n%s rss after first request: %d KB, after 1000 requests: %d KB%n",
+                runtime, firstRequestRss, rssKb());
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    @Benchmark
+    public String startToFirstValidate() throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(runtime + " process exited with " + process.exitValue());
+            }
+            try {
+                return send();
+            } catch (ConnectException e) {
+                Thread.sleep(2);
+            }
+        }
+        throw new IllegalStateException(runtime + " did not answer within 60s");
+    }
+
+    private String send() throws Exception {
+        HttpResponse<String> response = client.send(validate, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200 || !"true".equals(response.body())) {
+            throw new IllegalStateException("Validate failed: " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    /**
+     * VmRSS процесса из /proc (только Linux)
+     */
+    private long rssKb() throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(process.pid()), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static Path executable(String path) {
+        Path file = Path.of(path);
+        if (!Files.exists(file)) {
+            throw new IllegalStateException(file + " not found, build it with mvn -Pnative package -DskipTests");
+        }
+        return file;
+    }
+}
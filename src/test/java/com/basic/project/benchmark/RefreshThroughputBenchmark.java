@@ -0,0 +1,67 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.entity.UserEntity;
+import com.basic.project.service.AuthService;
+import com.basic.project.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность /refresh с second-level cache и без него.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="RefreshThroughputBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RefreshThroughputBenchmark {
+
+    private static final int USERS = 1000;
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+    private AuthDtos.RefreshRequest[] requests;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                "auth.refresh.coalesce-window=0");
+        authService = context.getBean(AuthService.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+
+        List<UserEntity> users = BenchmarkContext.seedUsers(context, USERS);
+        requests = new AuthDtos.RefreshRequest[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            requests[i] = new AuthDtos.RefreshRequest();
+            requests[i].setRefreshToken(jwtService.generateRefreshToken(users.get(i).getEmail()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public AuthDtos.TokenResponse refresh(Cursor cursor) {
+        AuthDtos.RefreshRequest request = requests[cursor.next++ % requests.length];
+        return authService.refresh(request);
+    }
+}
@@ -0,0 +1,68 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.exception.AuthException;
+import com.basic.project.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость отклоненного запроса (неверный пароль): исключение, его обработка и тело ответа.
+ * Исключение бросается через несколько кадров, как из стадии входа через сервис и контроллер.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="RejectedRequestBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RejectedRequestBenchmark {
+
+    private static final int DEPTH = 64;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(objectMapper, 1_000_000);
+
+    /**
+     * Прежний путь: исключение со stack trace и сериализация нового ErrorResponse через Jackson
+     */
+    @Benchmark
+    public byte[] withStackTrace() throws Exception {
+        try {
+            throwAt(DEPTH, true);
+            return null;
+        } catch (RuntimeException e) {
+            return objectMapper.writeValueAsBytes(new AuthDtos.ErrorResponse(
+                    "INVALID_CREDENTIALS", e.getMessage(), System.currentTimeMillis(), HttpStatus.UNAUTHORIZED.value()));
+        }
+    }
+
+    /**
+     * Текущий путь: AuthException без stack trace и тело из шаблона
+     */
+    @Benchmark
+    public ResponseEntity<?> stackless() {
+        try {
+            throwAt(DEPTH, false);
+            return null;
+        } catch (AuthException e) {
+            return handler.handleAuthException(e);
+        }
+    }
+
+    private static void throwAt(int depth, boolean withStackTrace) {
+        if (depth > 0) {
+            throwAt(depth - 1, withStackTrace);
+            return;
+        }
+        if (withStackTrace) {
+            throw new RuntimeException("Неверные учетные данные");
+        }
+        throw AuthException.invalidCredentials();
+    }
+}
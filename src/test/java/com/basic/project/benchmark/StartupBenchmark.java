@@ -0,0 +1,68 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время от старта контекста до первого успешного POST /api/auth/validate, каждый замер в новой JVM.
+ * startupAot требует AOT классы в target/classes: mvn -Pstartup package -DskipTests,
+ * затем mvn -Pbenchmark test-compile exec:exec -Djmh.args="StartupBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public String defaults() throws Exception {
+        return startAndValidate();
+    }
+
+    @Benchmark
+    public String startupProfile() throws Exception {
+        return startAndValidate("spring.profiles.active=startup");
+    }
+
+    @Benchmark
+    @Fork(value = 5, jvmArgsAppend = "-Dspring.aot.enabled=true")
+    public String startupAot() throws Exception {
+        return startupProfile();
+    }
+
+    private String startAndValidate(String... properties) throws Exception {
+        context = BenchmarkContext.startWeb(properties);
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        String token = context.getBean(JwtService.class).generateAccessToken("startup@example.com");
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + "/api/auth/validate"))
+                        .header("Authorization", "Bearer " + token)
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200 || !"true".equals(response.body())) {
+            throw new IllegalStateException("Validate failed: " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,89 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.service.JwtService;
+import com.basic.project.service.Tenant;
+import com.basic.project.service.TokenFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выпуск и проверка токенов при сотнях tenant'ов: ключ выбирается по kid из снимка TenantRegistry.
+ * tenants=0 - только tenant по умолчанию (базовая линия). Токены случайных tenant'ов, 1024 шт.
+ * reload - проверка токенов одновременно с заменой снимка (перечитывание файла tenant'ов).
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="TenantTokenBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TenantTokenBenchmark {
+
+    private static final int TOKENS = 1024;
+    private static final Tenant.RateLimit LIMIT = new Tenant.RateLimit(5, 1);
+
+    @Param({"0", "100", "500"})
+    private int tenants;
+
+    private JwtService jwtService;
+    private List<Tenant.Definition> definitions;
+    private Tenant[] issuers;
+    private String[] authorizations;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(
+                "benchmark-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing",
+                "benchmark-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signing",
+                3600, 86400, 0, 1, 1, TokenFormat.STANDARD);
+        definitions = new ArrayList<>(tenants);
+        for (int i = 0; i < tenants; i++) {
+            definitions.add(new Tenant.Definition("tenant-" + i,
+                    "benchmark-tenant-" + i + "-access-secret-that-is-at-least-64-bytes-long-for-hs512",
+                    "benchmark-tenant-" + i + "-refresh-secret-that-is-at-least-64-bytes-long-for-hs512",
+                    new Tenant.Limits(LIMIT, LIMIT, LIMIT)));
+        }
+        jwtService.tenants().replace(definitions);
+
+        issuers = new Tenant[Math.max(tenants, 1)];
+        for (int i = 0; i < issuers.length; i++) {
+            issuers[i] = tenants == 0 ? jwtService.tenants().defaultTenant() : jwtService.tenants().resolve("tenant-" + i);
+        }
+        authorizations = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            Tenant tenant = issuers[ThreadLocalRandom.current().nextInt(issuers.length)];
+            authorizations[i] = "Bearer " + jwtService.generateAccessToken(tenant, "user" + i + "@example.com", 3600);
+        }
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return jwtService.isValidAccessToken(authorizations[ThreadLocalRandom.current().nextInt(TOKENS)], 7);
+    }
+
+    @Benchmark
+    public String sign() {
+        Tenant tenant = issuers[ThreadLocalRandom.current().nextInt(issuers.length)];
+        return jwtService.generateAccessToken(tenant, "user@example.com", 3600);
+    }
+
+    @Benchmark
+    @Group("reload")
+    @GroupThreads(3)
+    public boolean verifyDuringReload() {
+        return verify();
+    }
+
+    @Benchmark
+    @Group("reload")
+    @GroupThreads(1)
+    public int replace() {
+        jwtService.tenants().replace(definitions);
+        return jwtService.tenants().size();
+    }
+}
@@ -0,0 +1,133 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.controller.AuthController;
+import com.basic.project.controller.RateLimitResponses;
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.exception.ErrorResponseTemplate;
+import com.basic.project.service.JwtService;
+import com.basic.project.service.TokenFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Поток отклоненных rate limiting запросов на /login при исчерпанном bucket.
+ * template - текущий контроллер (готовое тело и заголовки из probe),
+ * jackson - прежняя схема: новый ErrorResponse и сериализация через Jackson.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="ThrottledFloodBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ThrottledFloodBenchmark {
+
+    private static final String BODY = "{\"principal\":\"user@example.com\",\"password\":\"Password123!\"}";
+    private static final String ACCESS_SECRET = "benchmark-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing";
+    private static final String REFRESH_SECRET = "benchmark-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signing";
+
+    private MockMvc template;
+    private MockMvc jackson;
+    private ObjectMapper objectMapper;
+    private ErrorResponseTemplate bodyTemplate;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        bodyTemplate = new ErrorResponseTemplate(objectMapper, "RATE_LIMIT_EXCEEDED",
+                "Слишком много попыток входа. Попробуйте позже.", HttpStatus.TOO_MANY_REQUESTS.value());
+        Bucket exhausted = exhaustedBucket();
+        template = MockMvcBuilders.standaloneSetup(new AuthController(
+                null, new JwtService(ACCESS_SECRET, REFRESH_SECRET, 3600, 86400, 0, 1, 1, TokenFormat.STANDARD),
+                exhausted, exhausted, exhausted, exhausted, new RateLimitResponses(objectMapper))).build();
+        jackson = MockMvcBuilders.standaloneSetup(new JacksonThrottledController(exhausted)).build();
+    }
+
+    @Benchmark
+    public MvcResult template() throws Exception {
+        return template.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(BODY)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult jackson() throws Exception {
+        return jackson.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(BODY)).andReturn();
+    }
+
+    /**
+     * Только тело ответа, без накладных расходов MockMvc
+     */
+    @Benchmark
+    public byte[] templateBody() {
+        return bodyTemplate.render(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public byte[] jacksonBody() throws Exception {
+        return objectMapper.writeValueAsBytes(new AuthDtos.ErrorResponse(
+                "RATE_LIMIT_EXCEEDED",
+                "Слишком много попыток входа. Попробуйте позже.",
+                System.currentTimeMillis(),
+                HttpStatus.TOO_MANY_REQUESTS.value()
+        ));
+    }
+
+    private static Bucket exhaustedBucket() {
+        Bucket bucket = Bucket.builder()
+                .addLimit(Bandwidth.classic(1, Refill.intervally(1, Duration.ofDays(1))))
+                .build();
+        bucket.tryConsume(1);
+        return bucket;
+    }
+
+    /**
+     * Отказ в прежнем виде, для сравнения; профиль исключает контроллер из сканирования приложения
+     */
+    @Profile("benchmark-baseline")
+    @RestController
+    @RequestMapping("/api/auth")
+    static class JacksonThrottledController {
+
+        private final Bucket bucket;
+
+        JacksonThrottledController(Bucket bucket) {
+            this.bucket = bucket;
+        }
+
+        @PostMapping("/login")
+        public ResponseEntity<?> login(@Valid @RequestBody AuthDtos.LoginRequest loginRequest,
+                                       HttpServletRequest request) {
+            ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(new AuthDtos.ErrorResponse(
+                            "RATE_LIMIT_EXCEEDED",
+                            "Слишком много попыток входа. Попробуйте позже.",
+                            System.currentTimeMillis(),
+                            HttpStatus.TOO_MANY_REQUESTS.value()
+                    ));
+        }
+    }
+}
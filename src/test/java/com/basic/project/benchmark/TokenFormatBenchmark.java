@@ -0,0 +1,50 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.service.JwtService;
+import com.basic.project.service.TokenFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Размер и стоимость проверки токена в стандартном и компактном формате.
+ * Размер заголовка Authorization печатается при старте каждого форка.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="TokenFormatBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenFormatBenchmark {
+
+    @Param({"STANDARD", "COMPACT"})
+    public TokenFormat format;
+
+    private JwtService jwtService;
+    private String authorization;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(
+                "benchmark-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing",
+                "benchmark-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signin",
+                3600, 86400, 0, 1, 1, format);
+        token = jwtService.generateAccessToken(jwtService.subjectFor(123456L, "benchmark.user@example.com"));
+        authorization = "Bearer " + token;
+        System.out.printf("%n%s access token: %d bytes, Authorization header: %d bytes%n",
+                format, token.length(), authorization.length());
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return jwtService.isValidAccessToken(authorization, 7);
+    }
+
+    @Benchmark
+    public boolean jjwt() {
+        return jwtService.isValidAccessToken(token);
+    }
+}
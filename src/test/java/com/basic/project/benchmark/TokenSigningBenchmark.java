@@ -0,0 +1,62 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.service.JwtService;
+import com.basic.project.service.TokenFormat;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подпись токена: jjwt (Mac.getInstance + init на каждый токен) против заранее инициализированного HMAC.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="TokenSigningBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TokenSigningBenchmark {
+
+    private static final String SUBJECT = "benchmark.user@example.com";
+
+    private JwtService jwtService;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(
+                "benchmark-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing",
+                "benchmark-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signin",
+                3600, 86400, 0, 1, 1, TokenFormat.STANDARD);
+    }
+
+    @Benchmark
+    public String jjwt() {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, jwtService.accessKeys().active().kid())
+                .setSubject(SUBJECT)
+                .addClaims(Map.of("type", "access"))
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plusSeconds(3600)))
+                .signWith(jwtService.accessKeys().active().key(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    @Benchmark
+    public String engine() {
+        return jwtService.generateAccessToken(SUBJECT, 3600);
+    }
+
+    @Benchmark
+    public boolean signAndVerify() {
+        return jwtService.isValidAccessToken(jwtService.generateAccessToken(SUBJECT, 3600), 0);
+    }
+}
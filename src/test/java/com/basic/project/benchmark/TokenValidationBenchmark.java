@@ -0,0 +1,42 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.service.JwtService;
+import com.basic.project.service.TokenFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение проверки токена из заголовка Authorization: jjwt против разбора по смещению.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="TokenValidationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenValidationBenchmark {
+
+    private JwtService jwtService;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(
+                "benchmark-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing",
+                "benchmark-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signin",
+                3600, 86400, 0, 1, 1, TokenFormat.STANDARD);
+        authorization = "Bearer " + jwtService.generateAccessToken("benchmark.user@example.com");
+    }
+
+    @Benchmark
+    public boolean jjwt() {
+        return jwtService.isValidAccessToken(authorization.replace("Bearer ", ""));
+    }
+
+    @Benchmark
+    public boolean offset() {
+        return jwtService.isValidAccessToken(authorization, 7);
+    }
+}
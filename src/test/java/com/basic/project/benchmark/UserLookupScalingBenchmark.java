@@ -0,0 +1,125 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.repository.UserCredentials;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка поиска пользователя при входе (p50/p99 в SampleTime) в зависимости от числа пользователей:
+ * or-scan - прежний запрос lower(email) = ? OR lower(username) = ? (индексы не используются),
+ * email - по email_normalized (ключ партиционирования), username - через username_index.
+ * На H2 без партиций видна разница формы запроса; на PostgreSQL с профилем partitioned
+ * маршрутизированные запросы дополнительно читают одну партицию из шестнадцати.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="UserLookupScalingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class UserLookupScalingBenchmark {
+
+    private static final String SELECT = "SELECT new com.basic.project.repository.UserCredentials("
+            + "u.id, u.email, u.password, u.enabled) ";
+    private static final String OR_SCAN = SELECT
+            + "FROM UserEntity u WHERE lower(u.email) = lower(:principal) OR lower(u.username) = lower(:principal)";
+    private static final String BY_EMAIL = SELECT
+            + "FROM UserEntity u WHERE u.tenantId = 'default' AND u.emailNormalized = :principal";
+    private static final String BY_USERNAME = SELECT + "FROM UsernameIndexEntity i JOIN UserEntity u "
+            + "ON u.emailNormalized = i.emailNormalized AND u.id = i.user.id "
+            + "WHERE i.tenantId = 'default' AND i.usernameNormalized = :principal";
+
+    @Param({"1000", "10000", "100000"})
+    private int users;
+
+    @Param({"or-scan", "email", "username"})
+    private String lookup;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private String query;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "auth.events.enabled=false",
+                "logging.level.com.basic.project=WARN");
+        seed(context.getBean(JdbcTemplate.class), users);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        query = switch (lookup) {
+            case "or-scan" -> OR_SCAN;
+            case "email" -> BY_EMAIL;
+            default -> BY_USERNAME;
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        EntityManager entityManager;
+
+        @Setup
+        public void open(UserLookupScalingBenchmark benchmark) {
+            entityManager = benchmark.entityManagerFactory.createEntityManager();
+        }
+
+        @TearDown
+        public void close() {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public UserCredentials findUser(Session session) {
+        int user = ThreadLocalRandom.current().nextInt(users);
+        String principal = "username".equals(lookup) ? "user" + user : "user" + user + "@example.com";
+        TypedQuery<UserCredentials> typed = session.entityManager.createQuery(query, UserCredentials.class)
+                .setParameter("principal", principal);
+        List<UserCredentials> result = typed.getResultList();
+        session.entityManager.clear();
+        if (result.size() != 1) {
+            throw new IllegalStateException("User not found: " + principal);
+        }
+        return result.get(0);
+    }
+
+    /**
+     * Пакетная вставка через JDBC: сохранение через JPA с IDENTITY на сотнях тысяч строк слишком медленное
+     */
+    private static void seed(JdbcTemplate jdbcTemplate, int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int batch = 5_000;
+        for (int from = 0; from < count; from += batch) {
+            List<Object[]> userRows = new ArrayList<>(batch);
+            List<Object[]> indexRows = new ArrayList<>(batch);
+            for (int i = from; i < Math.min(count, from + batch); i++) {
+                long id = i + 1;
+                String email = "user" + i + "@example.com";
+                userRows.add(new Object[]{id, "user" + i, "{noop}" + BenchmarkContext.PASSWORD, email, email, now});
+                indexRows.add(new Object[]{"user" + i, id, email});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO users (id, tenant_id, username, password, email, email_normalized, "
+                    + "phone, enabled, created_at, failed_login_attempts) "
+                    + "VALUES (?, 'default', ?, ?, ?, ?, '+12345678901', true, ?, 0)", userRows);
+            jdbcTemplate.batchUpdate("INSERT INTO username_index (tenant_id, username_normalized, user_id, "
+                    + "email_normalized) VALUES ('default', ?, ?, ?)", indexRows);
+        }
+    }
+}
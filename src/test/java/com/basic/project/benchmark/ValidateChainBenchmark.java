@@ -0,0 +1,66 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы в секунду на POST /api/auth/validate через встроенный Tomcat:
+ * shared - общая цепочка SecurityConfig, dedicated - отдельная цепочка ValidationSecurityConfig,
+ * direct - ответ из DirectValidateFilter до Spring Security и MVC.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="ValidateChainBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(4)
+public class ValidateChainBenchmark {
+
+    @Param({"shared", "dedicated", "direct"})
+    private String chain;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.startWeb(
+                "auth.validate.dedicated-chain=" + !"shared".equals(chain),
+                "auth.validate.direct=" + "direct".equals(chain),
+                "auth.events.enabled=false",
+                "logging.level.com.basic.project=WARN");
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        String token = context.getBean(JwtService.class).generateAccessToken("chain@example.com");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + "/api/auth/validate"))
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String validate() throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Validate failed: " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,112 @@
+package com.basic.project.benchmark;
+
+import com.basic.project.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прогрев при старте (WarmupRunner): время до готовности и задержка первых запросов после деплоя.
+ * readiness - от запуска до ACCEPTING_TRAFFIC (SpringApplication.run возвращается после runner'ов);
+ * firstRequests - каждая итерация один HTTP запрос к свежему экземпляру, перцентили по первым 300 запросам.
+ * Запуск: mvn -Pbenchmark test-compile exec:exec -Djmh.args="WarmupBenchmark"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 0)
+@Fork(3)
+public class WarmupBenchmark {
+
+    private static final String[] PROPERTIES = {
+            "rate-limit.login.requests=1000000",
+            "admission.enabled=false",
+            "logging.level.com.basic.project.config.WarmupRunner=INFO"
+    };
+
+    @State(Scope.Benchmark)
+    public static class Fresh {
+
+        @Param({"true", "false"})
+        public boolean warmup;
+
+        private ConfigurableApplicationContext context;
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Deployed {
+
+        @Param({"true", "false"})
+        public boolean warmup;
+
+        @Param({"validate", "login"})
+        public String request;
+
+        private ConfigurableApplicationContext context;
+        private HttpClient client;
+        private HttpRequest prepared;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContext.startWeb(withWarmup(warmup));
+            BenchmarkContext.seedUsers(context, 1);
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            client = HttpClient.newHttpClient();
+            prepared = "login".equals(request)
+                    ? HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + port + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"principal\":\"user0@example.com\",\"password\":\"" + BenchmarkContext.PASSWORD + "\"}"))
+                    .build()
+                    : HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + port + "/api/auth/validate"))
+                    .header("Authorization", "Bearer "
+                            + context.getBean(JwtService.class).generateAccessToken("user0@example.com"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @Measurement(iterations = 1)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ConfigurableApplicationContext readiness(Fresh state) {
+        state.context = BenchmarkContext.startWeb(withWarmup(state.warmup));
+        return state.context;
+    }
+
+    @Benchmark
+    @Measurement(iterations = 300)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int firstRequests(Deployed state) throws Exception {
+        HttpResponse<Void> response = state.client.send(state.prepared, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private static String[] withWarmup(boolean warmup) {
+        String[] properties = new String[PROPERTIES.length + 1];
+        System.arraycopy(PROPERTIES, 0, properties, 0, PROPERTIES.length);
+        properties[PROPERTIES.length] = "warmup.enabled=" + warmup;
+        return properties;
+    }
+}
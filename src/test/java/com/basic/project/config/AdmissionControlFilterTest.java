@@ -0,0 +1,151 @@
+package com.basic.project.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void requestsBeyondLimitAreShedWithRetryAfter() throws Exception {
+        AdmissionControlProperties properties = properties();
+        properties.setCredentials(limit(2));
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, meterRegistry, new ObjectMapper());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(2);
+
+        Future<?> first = executor.submit(() -> call(filter, "/api/auth/login", blocking(entered, release)));
+        Future<?> second = executor.submit(() -> call(filter, "/api/auth/register", blocking(entered, release)));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse shed = call(filter, "/api/auth/login", (request, response) -> fail("must be shed"));
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertTrue(shed.getContentAsString().contains("SERVICE_OVERLOADED"));
+        assertEquals(200, call(filter, "/api/auth/validate", (request, response) -> { }).getStatus());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(1.0, meterRegistry.get("auth.admission.shed")
+                .tag("class", "credentials").tag("reason", "limit").counter().count());
+        assertEquals(0.0, meterRegistry.get("auth.admission.inflight").tag("class", "credentials").gauge().value());
+    }
+
+    @Test
+    void reserveIsKeptForValidate() throws Exception {
+        AdmissionControlProperties properties = properties();
+        properties.setTotalLimit(4);
+        properties.setPriorityReserve(0.5);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, meterRegistry, new ObjectMapper());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(2);
+
+        executor.submit(() -> call(filter, "/api/auth/login", blocking(entered, release)));
+        executor.submit(() -> call(filter, "/api/auth/refresh", blocking(entered, release)));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertEquals(503, call(filter, "/api/auth/login", (request, response) -> { }).getStatus());
+        assertEquals(200, call(filter, "/api/auth/validate", (request, response) -> { }).getStatus());
+        assertEquals(1.0, meterRegistry.get("auth.admission.shed")
+                .tag("class", "credentials").tag("reason", "priority").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void limitGrowsOnlyWhenUtilizedAndShrinksOnOverload() {
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties(), meterRegistry, new ObjectMapper());
+        AimdLimiter limiter = filter.limiter(AdmissionControlFilter.EndpointClass.REFRESH);
+
+        call(filter, "/api/auth/refresh", (request, response) -> { });
+        assertEquals(10, limiter.limit());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        for (int i = 0; i < 10; i++) {
+            limiter.release(0, false);
+        }
+        // Рост, пока после освобождения занята хотя бы половина предела: 9, 8, 7 из 10, 11, 12
+        assertEquals(13, limiter.limit());
+
+        call(filter, "/api/auth/refresh", (request, response) -> ((MockHttpServletResponse) response).setStatus(500));
+        assertEquals(11, limiter.limit());
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(Duration.ofSeconds(1).toNanos(), false);
+        assertEquals(9, limiter.limit());
+        assertEquals(9.0, meterRegistry.get("auth.admission.limit").tag("class", "refresh").gauge().value());
+    }
+
+    @Test
+    void ownOverloadResponsesAndExceptionsDoNotShrinkLimit() {
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties(), meterRegistry, new ObjectMapper());
+        AimdLimiter limiter = filter.limiter(AdmissionControlFilter.EndpointClass.REFRESH);
+
+        call(filter, "/api/auth/refresh", (request, response) -> ((MockHttpServletResponse) response).setStatus(503));
+        assertThrows(IllegalStateException.class, () -> call(filter, "/api/auth/refresh", (request, response) -> {
+            throw new IOException("Broken pipe");
+        }));
+
+        assertEquals(10, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void otherPathsAreNotLimited() {
+        assertNull(AdmissionControlFilter.classify(new MockHttpServletRequest("GET", "/api/auth/me")));
+        assertEquals(AdmissionControlFilter.EndpointClass.VALIDATE,
+                AdmissionControlFilter.classify(new MockHttpServletRequest("GET", "/api/auth/validate")));
+    }
+
+    private static FilterChain blocking(CountDownLatch entered, CountDownLatch release) {
+        return (request, response) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private static MockHttpServletResponse call(AdmissionControlFilter filter, String path, FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest("POST", path), response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static AdmissionControlProperties properties() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setRefresh(limit(10));
+        return properties;
+    }
+
+    private static AdmissionControlProperties.Limit limit(int limit) {
+        return new AdmissionControlProperties.Limit(limit, 1, 100, Duration.ofMillis(500));
+    }
+}
@@ -0,0 +1,50 @@
+package com.basic.project.config;
+
+import com.basic.project.service.JwtService;
+import com.basic.project.service.TokenFormat;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectValidateFilterTest {
+
+    private final JwtService jwtService = new JwtService(
+            "test-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing!!",
+            "test-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signing!",
+            3600, 86400, 0, 1, 1, TokenFormat.STANDARD);
+    private final DirectValidateFilter filter = new DirectValidateFilter(jwtService);
+
+    @Test
+    void answersValidationWithoutCallingChain() throws Exception {
+        assertEquals("true", validate("Bearer " + jwtService.generateAccessToken("user@example.com")));
+        assertEquals("false", validate("Bearer broken"));
+        assertEquals("false", validate("Bearer " + jwtService.generateRefreshToken("user@example.com")));
+    }
+
+    @Test
+    void requestsWithoutAuthorizationContinueDownTheChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/validate");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+    }
+
+    private String validate(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/validate");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> fail("chain must not be called");
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        return response.getContentAsString();
+    }
+}
@@ -0,0 +1,62 @@
+package com.basic.project.config;
+
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.entity.UserEntity;
+import com.basic.project.repository.UserCredentials;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsTest() {
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void dtosAreBoundForJackson() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(AuthDtos.TokenResponse.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(AuthDtos.ErrorResponse.class.getMethod("getErrorCode")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(AuthDtos.LoginRequest.class.getMethod("setPrincipal", String.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(AuthDtos.LoginRequest.class.getDeclaredConstructor()).test(hints));
+    }
+
+    @Test
+    void entityAndProjectionAreConstructible() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserEntity.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(UserCredentials.class
+                .getDeclaredConstructor(Long.class, String.class, String.class, boolean.class)).test(hints));
+    }
+
+    @Test
+    void jjwtServicesAndImplementationsAreRegistered() {
+        for (String type : NativeHints.JJWT_TYPES) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), type);
+        }
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.CompressionCodec").test(hints));
+    }
+
+    @Test
+    void registeredClassNamesExist() {
+        for (String type : NativeHints.JJWT_TYPES) {
+            assertDoesNotThrow(() -> Class.forName(type), type);
+        }
+        for (String type : NativeHints.BUCKET4J_TYPES) {
+            assertDoesNotThrow(() -> Class.forName(type), type);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.basic.project.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadReplicaConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(ReadReplicaConfig.class)
+            .withPropertyValues(
+                    "read-replicas.enabled=true",
+                    "read-replicas.nodes[0].url=jdbc:h2:mem:replica-config",
+                    "spring.datasource.url=jdbc:h2:mem:primary-config",
+                    "spring.datasource.driver-class-name=org.h2.Driver",
+                    "spring.datasource.hikari.maximum-pool-size=7",
+                    "spring.datasource.hikari.connection-timeout=1500",
+                    "spring.datasource.hikari.pool-name=primary-pool");
+
+    @Test
+    void primaryPoolKeepsHikariSettings() {
+        contextRunner.run(context -> {
+            HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+            assertEquals(7, primary.getMaximumPoolSize());
+            assertEquals(1500, primary.getConnectionTimeout());
+            assertEquals("primary-pool", primary.getPoolName());
+            assertInstanceOf(LazyConnectionDataSourceProxy.class, context.getBean(DataSource.class));
+        });
+    }
+
+    @Test
+    void replicaPoolsAreClosedWithContext() {
+        HikariDataSource[] replica = new HikariDataSource[1];
+        contextRunner.run(context -> {
+            replica[0] = context.getBean(ReadReplicaConfig.ReplicaPools.class).pools().get(0);
+            assertFalse(replica[0].isClosed());
+        });
+        assertTrue(replica[0].isClosed());
+    }
+}
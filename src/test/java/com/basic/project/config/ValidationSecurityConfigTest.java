@@ -0,0 +1,64 @@
+package com.basic.project.config;
+
+import com.basic.project.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ValidationSecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
+    @Test
+    void validateUsesDedicatedChainWithMinimalFilters() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/validate");
+        request.setServletPath("/api/auth/validate");
+        SecurityFilterChain chain = filterChainProxy.getFilterChains().stream()
+                .filter(candidate -> candidate.matches(request))
+                .findFirst().orElseThrow();
+
+        assertTrue(chain.getFilters().size() <= 2, () -> "Unexpected filters: " + chain.getFilters());
+    }
+
+    @Test
+    void validateAnswersWithoutSecurityHeaders() throws Exception {
+        String token = jwtService.generateAccessToken("chain@example.com");
+
+        mockMvc.perform(post("/api/auth/validate").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"))
+                .andExpect(header().doesNotExist("X-Content-Type-Options"));
+        mockMvc.perform(post("/api/auth/validate").header("Authorization", "Bearer broken"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("false"));
+        mockMvc.perform(post("/api/auth/validate"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void otherEndpointsKeepSharedChain() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.basic.project.config;
+
+import com.basic.project.entity.UserEntity;
+import com.basic.project.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "warmup.jwt-iterations=50",
+        "warmup.bcrypt-iterations=1",
+        "warmup.connections=3",
+        "warmup.repository-iterations=5"
+})
+@ActiveProfiles("test")
+class WarmupRunnerTest {
+
+    private static volatile WarmupRunner.Report reportWhenReady;
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WarmupProperties properties;
+
+    @TestConfiguration
+    static class ReadinessListener {
+
+        @Bean
+        ApplicationListener<AvailabilityChangeEvent<ReadinessState>> readinessRecorder(
+                ObjectProvider<WarmupRunner> runner) {
+            return event -> {
+                if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                    reportWhenReady = runner.getObject().report();
+                }
+            };
+        }
+    }
+
+    @Test
+    void warmupCompletesBeforeReadiness() {
+        assertNotNull(reportWhenReady, "Readiness turned green before warm-up finished");
+        assertEquals(List.of("pool", "jwt", "bcrypt", "repository"), List.copyOf(reportWhenReady.phases().keySet()));
+        assertEquals(3, reportWhenReady.connections());
+    }
+
+    @Test
+    void hotUsersArePreloadedByLastLogin() {
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UserEntity user = new UserEntity();
+            user.setUsername("hot" + i);
+            user.setEmail("hot" + i + "@example.com");
+            user.setPassword("hash");
+            user.setLastLoginAt(i == 0 ? null : LocalDateTime.now().minusMinutes(i));
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+        properties.setHotUsers(5);
+        try {
+            assertEquals(List.of("hot1@example.com", "hot2@example.com"),
+                    userRepository.findRecentLoginEmails(PageRequest.of(0, 5)));
+
+            warmupRunner.run(null);
+            assertEquals(2, warmupRunner.report().hotUsers());
+            assertTrue(warmupRunner.report().phases().containsKey("hot-users"));
+        } finally {
+            properties.setHotUsers(0);
+            userRepository.deleteAll(users);
+        }
+    }
+}
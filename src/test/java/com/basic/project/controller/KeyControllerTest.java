@@ -0,0 +1,55 @@
+package com.basic.project.controller;
+
+import com.basic.project.service.JwtKeyRing;
+import com.basic.project.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Base64;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.security.user.password=" + KeyControllerTest.ACTUATOR_PASSWORD_HASH,
+        "auth.keys.password=" + KeyControllerTest.KEYS_PASSWORD_HASH
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class KeyControllerTest {
+
+    // BCrypt хэши паролей actuator-test и keys-test
+    static final String ACTUATOR_PASSWORD_HASH = "$2a$10$XBFejffMQd2ULnrsgkt.rOVpV0A5Dmo5/oI1VoKK5SaEtsQUG0Acu";
+    static final String KEYS_PASSWORD_HASH = "$2a$10$8oAHV./iLBBg17GNXOk.AOw2V4d0Vzgo38sq09fPJVUE57OxZS.9C";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void keysRequireCredentials() throws Exception {
+        mockMvc.perform(get("/api/auth/keys")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/auth/keys").with(httpBasic("auth-client", "wrong"))).andExpect(status().isUnauthorized());
+        // Учетная запись actuator не дает доступа к ключам
+        mockMvc.perform(get("/api/auth/keys").with(httpBasic("admin", "actuator-test"))).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void keysReturnActiveAccessSecret() throws Exception {
+        JwtKeyRing.SigningKey active = jwtService.accessKeys().active();
+        String secret = Base64.getUrlEncoder().withoutPadding().encodeToString(active.key().getEncoded());
+
+        mockMvc.perform(get("/api/auth/keys").with(httpBasic("auth-client", "keys-test")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.activeKid").value(active.kid()))
+                .andExpect(jsonPath("$.keys[?(@.kid == '" + active.kid() + "')].secret").value(secret));
+    }
+}
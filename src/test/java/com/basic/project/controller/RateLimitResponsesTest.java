@@ -0,0 +1,43 @@
+package com.basic.project.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RateLimitResponses responses = new RateLimitResponses(objectMapper);
+
+    @Test
+    void throttledResponseCarriesProbeHeadersAndErrorBody() throws Exception {
+        Bucket bucket = Bucket.builder()
+                .addLimit(Bandwidth.classic(1, Refill.intervally(1, Duration.ofSeconds(30))))
+                .build();
+        bucket.tryConsume(1);
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+
+        long before = System.currentTimeMillis();
+        ResponseEntity<byte[]> response = responses.login(probe);
+
+        assertEquals(429, response.getStatusCode().value());
+        long retryAfter = Long.parseLong(response.getHeaders().getFirst("Retry-After"));
+        assertTrue(retryAfter >= 29 && retryAfter <= 30, "Retry-After " + retryAfter);
+        assertEquals("0", response.getHeaders().getFirst(RateLimitResponses.REMAINING_HEADER));
+
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals("RATE_LIMIT_EXCEEDED", body.get("errorCode").asText());
+        assertEquals("Слишком много попыток входа. Попробуйте позже.", body.get("message").asText());
+        assertEquals(429, body.get("status").asInt());
+        assertTrue(body.get("timestamp").asLong() >= before);
+    }
+}
@@ -1,24 +1,32 @@
 package com.basic.project.controller;
 
 import com.basic.project.dto.AuthDtos;
+import com.basic.project.service.JwtService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureTestMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
-@AutoConfigureTestMvc
+@AutoConfigureMockMvc
 @TestPropertySource(properties = {
     "rate-limit.login.requests=2",
-    "rate-limit.login.period=1"
+    "rate-limit.login.period=1",
+    "rate-limit.refresh.requests=100",
+    "rate-limit.refresh-attempts.requests=3"
 })
+@ActiveProfiles("test")
 class RateLimitTest {
 
     @Autowired
@@ -27,10 +35,23 @@ class RateLimitTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @MockitoSpyBean
+    private JwtService jwtService;
+
     @Test
     void testLoginRateLimit() throws Exception {
+        AuthDtos.RegisterRequest registerRequest = new AuthDtos.RegisterRequest();
+        registerRequest.setUsername("loginuser");
+        registerRequest.setEmail("login@example.com");
+        registerRequest.setPassword("password123");
+        registerRequest.setPhone("+12345678901");
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isOk());
+
         AuthDtos.LoginRequest loginRequest = new AuthDtos.LoginRequest();
-        loginRequest.setPrincipal("test@example.com");
+        loginRequest.setPrincipal("login@example.com");
         loginRequest.setPassword("password123");
 
         String requestJson = objectMapper.writeValueAsString(loginRequest);
@@ -72,4 +93,28 @@ class RateLimitTest {
                 .content(requestJson))
                 .andExpect(status().isConflict());
     }
+
+    @Test
+    void invalidRefreshTokensAreThrottledBeforeVerification() throws Exception {
+        AuthDtos.RefreshRequest refreshRequest = new AuthDtos.RefreshRequest();
+        refreshRequest.setRefreshToken("junk.junk.junk");
+        String requestJson = objectMapper.writeValueAsString(refreshRequest);
+
+        // Лимит попыток = 3, лимит tenant'а по умолчанию = 100: 429 дает общий лимит до проверки подписи
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/auth/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(requestJson))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/auth/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(requestJson))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(jsonPath("$.errorCode").value("RATE_LIMIT_EXCEEDED"));
+        }
+        verify(jwtService, times(3)).verifyRefreshToken("junk.junk.junk");
+    }
 }
@@ -0,0 +1,150 @@
+package com.basic.project.controller;
+
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.service.JwtService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TenantAuthTest {
+
+    private static final String PASSWORD = "Password123!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @DynamicPropertySource
+    static void tenantsFile(DynamicPropertyRegistry registry) throws IOException {
+        Path file = Files.createTempFile("tenants", ".properties");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, String.join("\n",
+                "shop.access-secret=shop-access-secret-that-is-long-enough-for-hs512-signing-keys-of-tenants!!",
+                "shop.refresh-secret=shop-refresh-secret-that-is-long-enough-for-hs512-signing-keys-of-tenants!",
+                "shop.login.requests=100",
+                "blog.access-secret=blog-access-secret-that-is-long-enough-for-hs512-signing-keys-of-tenants!!",
+                "blog.refresh-secret=blog-refresh-secret-that-is-long-enough-for-hs512-signing-keys-of-tenants!",
+                "blog.login.requests=100",
+                "tiny.access-secret=tiny-access-secret-that-is-long-enough-for-hs512-signing-keys-of-tenants!!",
+                "tiny.refresh-secret=tiny-refresh-secret-that-is-long-enough-for-hs512-signing-keys-of-tenants!",
+                "tiny.register.requests=1",
+                "slow.access-secret=slow-access-secret-that-is-long-enough-for-hs512-signing-keys-of-tenants!!",
+                "slow.refresh-secret=slow-refresh-secret-that-is-long-enough-for-hs512-signing-keys-of-tenants!",
+                "slow.refresh.requests=1"));
+        registry.add("tenants.file", file::toString);
+    }
+
+    @Test
+    void sameEmailIsIndependentPerTenant() throws Exception {
+        perform(register("shop", "tenant-user@example.com", PASSWORD)).andExpect(status().isOk());
+        perform(register("blog", "tenant-user@example.com", "Other456!pass")).andExpect(status().isOk());
+        perform(register("shop", "tenant-user@example.com", PASSWORD)).andExpect(status().isConflict());
+
+        JsonNode shop = json(perform(login("shop", "tenant-user@example.com", PASSWORD)).andExpect(status().isOk()));
+        String access = shop.get("accessToken").asText();
+        assertEquals("shop", jwtService.parseAccess(access).getBody().get("tid", String.class));
+        mockMvc.perform(post("/api/auth/validate").header("Authorization", "Bearer " + access))
+                .andExpect(content().string("true"));
+
+        // Пароль shop не подходит к учетной записи blog, tenant по умолчанию пользователя не знает
+        perform(login("blog", "tenant-user@example.com", PASSWORD)).andExpect(status().is4xxClientError());
+        perform(login(null, "tenant-user@example.com", PASSWORD)).andExpect(status().is4xxClientError());
+
+        AuthDtos.RefreshRequest refresh = new AuthDtos.RefreshRequest();
+        refresh.setRefreshToken(shop.get("refreshToken").asText());
+        JsonNode refreshed = json(perform(post("/api/auth/refresh").content(objectMapper.writeValueAsString(refresh)))
+                .andExpect(status().isOk()));
+        assertEquals("shop", jwtService.parseAccess(refreshed.get("accessToken").asText())
+                .getBody().get("tid", String.class));
+    }
+
+    @Test
+    void unknownTenantIsBadRequest() throws Exception {
+        perform(login("missing", "tenant-user@example.com", PASSWORD))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("UNKNOWN_TENANT"));
+    }
+
+    @Test
+    void tenantLimitsAreSeparateFromDefault() throws Exception {
+        perform(register("tiny", "tiny-1@example.com", PASSWORD)).andExpect(status().isOk());
+        perform(register("tiny", "tiny-2@example.com", PASSWORD))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.errorCode").value("RATE_LIMIT_EXCEEDED"));
+        perform(register(null, "tiny-3@example.com", PASSWORD)).andExpect(status().isOk());
+    }
+
+    @Test
+    void refreshIsLimitedByTokenTenantNotHeader() throws Exception {
+        JsonNode slow = json(perform(register("slow", "slow-user@example.com", PASSWORD)).andExpect(status().isOk()));
+        JsonNode other = json(perform(register(null, "slow-other@example.com", PASSWORD)).andExpect(status().isOk()));
+
+        // Заголовок чужого tenant'а не расходует лимит slow
+        perform(refresh("slow", other.get("refreshToken").asText())).andExpect(status().isOk());
+        perform(refresh(null, slow.get("refreshToken").asText())).andExpect(status().isOk());
+        // Лимит slow исчерпан, заголовок другого tenant'а его не обходит
+        perform(refresh("shop", slow.get("refreshToken").asText()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.errorCode").value("RATE_LIMIT_EXCEEDED"));
+    }
+
+    private MockHttpServletRequestBuilder refresh(String tenant, String refreshToken) throws Exception {
+        AuthDtos.RefreshRequest request = new AuthDtos.RefreshRequest();
+        request.setRefreshToken(refreshToken);
+        return withTenant(post("/api/auth/refresh"), tenant).content(objectMapper.writeValueAsString(request));
+    }
+
+    private MockHttpServletRequestBuilder register(String tenant, String email, String password) throws Exception {
+        AuthDtos.RegisterRequest request = new AuthDtos.RegisterRequest();
+        request.setUsername(email.substring(0, email.indexOf('@')));
+        request.setEmail(email);
+        request.setPassword(password);
+        request.setPhone("+12345678901");
+        return withTenant(post("/api/auth/register"), tenant).content(objectMapper.writeValueAsString(request));
+    }
+
+    private MockHttpServletRequestBuilder login(String tenant, String principal, String password) throws Exception {
+        AuthDtos.LoginRequest request = new AuthDtos.LoginRequest();
+        request.setPrincipal(principal);
+        request.setPassword(password);
+        return withTenant(post("/api/auth/login"), tenant).content(objectMapper.writeValueAsString(request));
+    }
+
+    private static MockHttpServletRequestBuilder withTenant(MockHttpServletRequestBuilder request, String tenant) {
+        return tenant == null ? request : request.header(AuthController.TENANT_HEADER, tenant);
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private JsonNode json(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
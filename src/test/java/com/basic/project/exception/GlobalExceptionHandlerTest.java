@@ -0,0 +1,49 @@
+package com.basic.project.exception;
+
+import com.basic.project.dto.AuthDtos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(objectMapper, 100);
+
+    @Test
+    void authExceptionIsStackless() {
+        assertEquals(0, AuthException.invalidCredentials().getStackTrace().length);
+        assertEquals(0, AuthException.invalidInput("bad").getStackTrace().length);
+    }
+
+    @Test
+    void templateMatchesJacksonSerialization() throws Exception {
+        for (AuthException.ErrorCode code : AuthException.ErrorCode.values()) {
+            long timestamp = System.currentTimeMillis();
+            byte[] expected = objectMapper.writeValueAsBytes(new AuthDtos.ErrorResponse(
+                    code.name(), code.getMessage(), timestamp, code.getStatus().value()));
+
+            assertEquals(new String(expected, StandardCharsets.UTF_8),
+                    new String(ErrorResponseTemplate.of(objectMapper, code).render(timestamp), StandardCharsets.UTF_8));
+        }
+        assertTrue(new String(ErrorResponseTemplate.of(objectMapper, AuthException.ErrorCode.INVALID_CREDENTIALS)
+                .render(0), StandardCharsets.UTF_8).contains("\"timestamp\":0"));
+    }
+
+    @Test
+    void fixedCodesUseTemplateAndOthersKeepTheirMessage() {
+        ResponseEntity<?> fixed = handler.handleAuthException(AuthException.invalidCredentials());
+        assertEquals(401, fixed.getStatusCode().value());
+        assertInstanceOf(byte[].class, fixed.getBody());
+        assertTrue(new String((byte[]) fixed.getBody(), StandardCharsets.UTF_8).contains("INVALID_CREDENTIALS"));
+
+        ResponseEntity<?> dynamic = handler.handleAuthException(AuthException.userAlreadyExists("user@example.com"));
+        assertEquals(409, dynamic.getStatusCode().value());
+        AuthDtos.ErrorResponse body = assertInstanceOf(AuthDtos.ErrorResponse.class, dynamic.getBody());
+        assertTrue(body.getMessage().contains("user@example.com"));
+    }
+}
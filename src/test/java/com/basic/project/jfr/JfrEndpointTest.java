@@ -0,0 +1,83 @@
+package com.basic.project.jfr;
+
+import com.basic.project.repository.UserRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.security.user.password=" + JfrEndpointTest.PASSWORD_HASH)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JfrEndpointTest {
+
+    // BCrypt хэш пароля actuator-test
+    static final String PASSWORD_HASH = "$2a$10$XBFejffMQd2ULnrsgkt.rOVpV0A5Dmo5/oI1VoKK5SaEtsQUG0Acu";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void endpointRequiresCredentials() throws Exception {
+        mockMvc.perform(get("/actuator/jfr")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/health")).andExpect(status().is2xxSuccessful());
+    }
+
+    @Test
+    void unknownSettingsAreRejected() throws Exception {
+        mockMvc.perform(post("/actuator/jfr").with(httpBasic("admin", "actuator-test"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"settings\": \"../../conf/custom\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void startDumpAndStopRecording() throws Exception {
+        mockMvc.perform(post("/actuator/jfr").with(httpBasic("admin", "actuator-test"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"maxAge\": \"1m\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+
+        userRepository.existsByEmail("jfr@example.com");
+
+        byte[] dump = mockMvc.perform(get("/actuator/jfr/dump").with(httpBasic("admin", "actuator-test")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        Path file = Files.createTempFile("jfr-endpoint-test", ".jfr");
+        try {
+            Files.write(file, dump);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertTrue(events.stream().anyMatch(event ->
+                    event.getEventType().getName().equals("com.basic.project.Repository")
+                            && "existsByEmail".equals(event.getString("method"))));
+            assertTrue(events.stream().noneMatch(event ->
+                    JfrEndpoint.SENSITIVE_EVENTS.contains(event.getEventType().getName())));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        mockMvc.perform(delete("/actuator/jfr").with(httpBasic("admin", "actuator-test")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("STOPPED"));
+        mockMvc.perform(get("/actuator/jfr/dump").with(httpBasic("admin", "actuator-test")))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,86 @@
+package com.basic.project.jfr;
+
+import com.basic.project.service.JwtService;
+import com.basic.project.service.TokenFormat;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventsTest {
+
+    private final JwtService jwtService = new JwtService(
+            "test-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing!!",
+            "test-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signing!",
+            3600, 86400, 0, 1, 1, TokenFormat.STANDARD);
+
+    @Test
+    void eventsAreNotCommittedWithoutRecording() {
+        assertFalse(new TokenEvent().shouldCommit());
+        assertFalse(new RepositoryEvent().isEnabled());
+    }
+
+    @Test
+    void hotPathsEmitEventsWhileRecording() throws Exception {
+        List<RecordedEvent> events = record(() -> {
+            String token = jwtService.generateAccessToken("user@example.com");
+            assertTrue(jwtService.isValidAccessToken(token, 0));
+            assertFalse(jwtService.isValidAccessToken("garbage", 0));
+            assertNull(jwtService.verifyRefreshToken(token));
+
+            ProxyFactory proxyFactory = new ProxyFactory((Supplier<String>) () -> "found");
+            proxyFactory.addAdvice(new RepositoryEventInterceptor("UserRepository"));
+            @SuppressWarnings("unchecked")
+            Supplier<String> repository = (Supplier<String>) proxyFactory.getProxy();
+            assertEquals("found", repository.get());
+
+            RateLimitEvent.emit("login", false, 0, 1_000_000);
+        });
+
+        List<RecordedEvent> tokens = byName(events, "com.basic.project.Token");
+        assertEquals(4, tokens.size());
+        assertEquals("sign", tokens.get(0).getString("operation"));
+        assertEquals("STANDARD", tokens.get(0).getString("format"));
+        assertEquals("valid", tokens.get(1).getString("verdict"));
+        assertEquals("invalid", tokens.get(2).getString("verdict"));
+        assertEquals("refresh", tokens.get(3).getString("tokenType"));
+
+        RecordedEvent repository = byName(events, "com.basic.project.Repository").get(0);
+        assertEquals("UserRepository", repository.getString("repository"));
+        assertEquals("get", repository.getString("method"));
+        assertFalse(repository.getBoolean("failed"));
+
+        RecordedEvent rateLimit = byName(events, "com.basic.project.RateLimit").get(0);
+        assertEquals("login", rateLimit.getString("endpoint"));
+        assertFalse(rateLimit.getBoolean("consumed"));
+    }
+
+    private static List<RecordedEvent> record(Runnable work) throws Exception {
+        Path file = Files.createTempFile("jfr-events-test", ".jfr");
+        try (Recording recording = new Recording()) {
+            JfrEndpoint.EVENTS.forEach(recording::enable);
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> byName(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .toList();
+    }
+}
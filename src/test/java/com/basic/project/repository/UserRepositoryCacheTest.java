@@ -0,0 +1,120 @@
+package com.basic.project.repository;
+
+import com.basic.project.ProjectApplication;
+import com.basic.project.entity.UserEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRepositoryCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByEmailIsServedFromNaturalIdAndEntityCache() {
+        userRepository.save(user("cached", "cached@example.com"));
+        assertTrue(userRepository.findByEmail("cached@example.com").isPresent());
+        long statements = statistics.getPrepareStatementCount();
+        long naturalIdHits = statistics.getNaturalIdCacheHitCount();
+
+        assertTrue(userRepository.findByEmail("cached@example.com").isPresent());
+        assertTrue(userRepository.findByEmail("cached@example.com").isPresent());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(naturalIdHits + 2, statistics.getNaturalIdCacheHitCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    void closingAnotherContextLeavesThisCacheOpen() {
+        userRepository.save(user("survivor", "survivor@example.com"));
+        assertTrue(userRepository.findByEmail("survivor@example.com").isPresent());
+
+        new SpringApplicationBuilder(ProjectApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run("--warmup.enabled=false", "--spring.main.banner-mode=off")
+                .close();
+
+        long naturalIdHits = statistics.getNaturalIdCacheHitCount();
+        assertTrue(userRepository.findByEmail("survivor@example.com").isPresent());
+        assertEquals(naturalIdHits + 1, statistics.getNaturalIdCacheHitCount());
+    }
+
+    @Test
+    void updateInvalidatesCachedEmailAndUsernameLookups() {
+        userRepository.save(user("before", "before@example.com"));
+        assertTrue(userRepository.findByEmail("before@example.com").isPresent());
+        assertTrue(userRepository.findByUsername("before").isPresent());
+        assertTrue(userRepository.findByUsername("before").isPresent());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        UserEntity user = userRepository.findByEmail("before@example.com").orElseThrow();
+        user.setEmail("after@example.com");
+        user.setUsername("after");
+        userRepository.save(user);
+
+        assertTrue(userRepository.findByEmail("before@example.com").isEmpty());
+        assertTrue(userRepository.findByUsername("before").isEmpty());
+        UserEntity updated = userRepository.findByEmail("after@example.com").orElseThrow();
+        assertEquals("after", updated.getUsername());
+        assertTrue(updated.getUpdatedAt().isAfter(updated.getCreatedAt()) || updated.getUpdatedAt().isEqual(updated.getCreatedAt()));
+        assertEquals("after@example.com", userRepository.findByUsername("after").orElseThrow().getEmail());
+    }
+
+    @Test
+    void credentialsProjectionMatchesPrincipalAndSeesUpdates() {
+        userRepository.save(user("Projected", "projected@example.com"));
+
+        UserCredentials byUsername = userRepository.findCredentialsByPrincipal("projected").orElseThrow();
+        UserCredentials byEmail = userRepository.findCredentialsByPrincipal("PROJECTED@example.com").orElseThrow();
+        assertEquals(byUsername, byEmail);
+        assertEquals("projected@example.com", byEmail.email());
+        assertTrue(byEmail.enabled());
+
+        UserEntity user = userRepository.findByEmail("projected@example.com").orElseThrow();
+        user.setEnabled(false);
+        userRepository.save(user);
+
+        assertFalse(userRepository.findCredentialsByEmail("projected@example.com").orElseThrow().enabled());
+        assertFalse(userRepository.findCredentialsByPrincipal("projected").orElseThrow().enabled());
+    }
+
+    private static UserEntity user(String username, String email) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("{noop}secret");
+        user.setPhone("+12345678901");
+        return user;
+    }
+}
@@ -0,0 +1,113 @@
+package com.basic.project.repository;
+
+import com.basic.project.entity.UserEntity;
+import com.basic.project.entity.UsernameIndexEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UsernameIndexTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void saveIndexesUsernameAndNormalizesEmail() {
+        UserEntity alice = userRepository.save(user("Alice", " Alice@Example.COM"));
+
+        assertEquals("alice@example.com", alice.getEmailNormalized());
+        assertEquals(List.of("alice"), indexedUsernames());
+        assertTrue(userRepository.existsByUsername("ALICE"));
+        assertTrue(userRepository.existsByEmail("alice@example.com"));
+        assertEquals(alice.getId(), userRepository.findCredentialsByPrincipal("aLiCe").orElseThrow().id());
+        assertEquals(alice.getId(), userRepository.findCredentialsByPrincipal("ALICE@example.com").orElseThrow().id());
+        assertTrue(userRepository.findByEmail("alice@EXAMPLE.com").isPresent());
+    }
+
+    @Test
+    void usernameIsUniqueIgnoringCase() {
+        userRepository.save(user("bob", "bob@example.com"));
+
+        assertThrows(DuplicateKeyException.class, () -> userRepository.save(user("BOB", "other@example.com")));
+        assertEquals(1, userRepository.count());
+        assertEquals(List.of("bob"), indexedUsernames());
+    }
+
+    @Test
+    void sameUsernameAndEmailInTwoTenantsAreFoundPerTenant() {
+        UserEntity shop = user("frank", "frank@example.com");
+        shop.setTenantId("shop");
+        UserEntity blog = user("frank", "frank@example.com");
+        blog.setTenantId("blog");
+        userRepository.saveAll(List.of(shop, blog));
+
+        assertEquals(shop.getId(), userRepository.findByUsername("shop", "frank").orElseThrow().getId());
+        assertEquals(blog.getId(), userRepository.findByUsername("blog", "frank").orElseThrow().getId());
+        assertTrue(userRepository.findByUsername("frank").isEmpty());
+        assertEquals(blog.getId(), userRepository.findByEmail("blog", "frank@example.com").orElseThrow().getId());
+    }
+
+    @Test
+    void indexFollowsUsernameAndEmailChanges() {
+        UserEntity carol = userRepository.save(user("carol", "carol@example.com"));
+
+        carol.setUsername("caroline");
+        carol.setEmail("caroline@example.com");
+        userRepository.save(carol);
+
+        assertEquals(List.of("caroline"), indexedUsernames());
+        assertTrue(userRepository.findCredentialsByPrincipal("carol").isEmpty());
+        assertEquals("caroline@example.com",
+                userRepository.findCredentialsByPrincipal("caroline").orElseThrow().email());
+        assertFalse(userRepository.existsByUsername("carol"));
+    }
+
+    @Test
+    void saveAllIndexesEveryUserAndDeleteCascades() {
+        userRepository.saveAll(List.of(user("dave", "dave@example.com"), user("erin", "erin@example.com")));
+        assertEquals(List.of("dave", "erin"), indexedUsernames());
+
+        userRepository.deleteAll();
+        assertEquals(List.of(), indexedUsernames());
+    }
+
+    private List<String> indexedUsernames() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("SELECT i.usernameNormalized FROM UsernameIndexEntity i "
+                    + "ORDER BY i.usernameNormalized", String.class).getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static UserEntity user(String username, String email) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("{noop}secret");
+        user.setPhone("+12345678901");
+        return user;
+    }
+}
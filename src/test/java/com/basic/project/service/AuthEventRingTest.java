@@ -0,0 +1,74 @@
+package com.basic.project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthEventRingTest {
+
+    @Test
+    void fullRingRejectsUntilDrained() {
+        AuthEventRing ring = new AuthEventRing(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(event(i)));
+        }
+        assertFalse(ring.offer(event(4)));
+        assertEquals(4, ring.size());
+
+        List<AuthEvent> drained = new ArrayList<>();
+        assertEquals(2, ring.drain(drained::add, 2));
+        assertTrue(ring.offer(event(4)));
+        assertTrue(ring.offer(event(5)));
+        assertFalse(ring.offer(event(6)));
+
+        assertEquals(4, ring.drain(drained::add, Integer.MAX_VALUE));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L), drained.stream().map(AuthEvent::userId).toList());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void concurrentProducersLoseNothingThatWasAccepted() throws Exception {
+        AuthEventRing ring = new AuthEventRing(1024);
+        int producers = 4;
+        int perProducer = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(event(base + i))) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<Long> seen = new HashSet<>();
+        while (done.getCount() > 0 || ring.size() > 0) {
+            ring.drain(event -> assertTrue(seen.add(event.userId())), 256);
+        }
+        executor.shutdown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(producers * perProducer, seen.size());
+    }
+
+    @Test
+    void capacityMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new AuthEventRing(1000));
+    }
+
+    private static AuthEvent event(long userId) {
+        return new AuthEvent(AuthEventType.LOGIN_SUCCESS, userId, "user@example.com", 0L);
+    }
+}
@@ -0,0 +1,120 @@
+package com.basic.project.service;
+
+import com.basic.project.entity.UserEntity;
+import com.basic.project.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthEventWriterTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbcTemplate;
+    private AuthEventWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM auth_events");
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    void shutdownFlushesCoalescedUserUpdatesAndFullAuditTrail() {
+        UserEntity alice = userRepository.save(user("alice"));
+        UserEntity bob = userRepository.save(user("bob"));
+        // Пользователь попадает в L2 кэш до записи событий
+        assertEquals(0, userRepository.findById(alice.getId()).orElseThrow().getFailedLoginAttempts());
+
+        writer = writer(500, 60_000);
+        writer.publish(AuthEventType.LOGIN_FAILURE, alice.getId(), "alice@example.com");
+        writer.publish(AuthEventType.LOGIN_FAILURE, alice.getId(), "alice@example.com");
+        writer.publish(AuthEventType.LOGIN_SUCCESS, alice.getId(), "alice@example.com");
+        writer.publish(AuthEventType.LOGIN_FAILURE, alice.getId(), "alice@example.com");
+        writer.publish(AuthEventType.LOGIN_FAILURE, bob.getId(), "bob");
+        writer.publish(AuthEventType.LOGIN_FAILURE, bob.getId(), "bob");
+        writer.publish(AuthEventType.LOGIN_FAILURE, null, "nobody@example.com");
+        writer.publish(AuthEventType.REFRESH, bob.getId(), "bob@example.com");
+        writer.shutdown();
+
+        assertEquals(8, jdbcTemplate.queryForObject("SELECT count(*) FROM auth_events", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM auth_events WHERE user_id IS NULL", Integer.class));
+
+        UserEntity aliceAfter = userRepository.findById(alice.getId()).orElseThrow();
+        assertNotNull(aliceAfter.getLastLoginAt());
+        assertEquals(1, aliceAfter.getFailedLoginAttempts());
+        UserEntity bobAfter = userRepository.findById(bob.getId()).orElseThrow();
+        assertNull(bobAfter.getLastLoginAt());
+        assertEquals(2, bobAfter.getFailedLoginAttempts());
+
+        assertEquals(8, meterRegistry.get("auth.events.written").counter().count());
+        assertEquals(1, meterRegistry.get("auth.events.flush").timer().count());
+    }
+
+    @Test
+    void fullBatchIsWrittenWithoutWaitingForInterval() throws Exception {
+        UserEntity carol = userRepository.save(user("carol"));
+        writer = writer(3, 60_000);
+
+        for (int i = 0; i < 3; i++) {
+            writer.publish(AuthEventType.LOGIN_SUCCESS, carol.getId(), "carol@example.com");
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jdbcTemplate.queryForObject("SELECT count(*) FROM auth_events", Integer.class) < 3
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM auth_events", Integer.class));
+        assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT last_login_at FROM users WHERE id = ?", Object.class, carol.getId()));
+    }
+
+    private AuthEventWriter writer(int batchSize, long flushIntervalMillis) {
+        return new AuthEventWriter(jdbcTemplate, transactionManager, entityManagerFactory, meterRegistry,
+                true, 1024, batchSize, flushIntervalMillis, AuthEventWriter.OverflowPolicy.DROP);
+    }
+
+    private static UserEntity user(String name) {
+        UserEntity user = new UserEntity();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("hash");
+        user.setPhone("+12345678901");
+        return user;
+    }
+}
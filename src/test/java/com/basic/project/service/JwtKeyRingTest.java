@@ -0,0 +1,86 @@
+package com.basic.project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private static final String FIRST = "first-secret-that-is-at-least-64-bytes-long-for-hs512-signing-purposes";
+    private static final String SECOND = "second-secret-that-is-at-least-64-bytes-long-for-hs512-signing-purpose";
+
+    private Instant now = Instant.parse("2025-10-01T00:00:00Z");
+
+    private final JwtKeyRing keyRing = new JwtKeyRing("Access", FIRST, Duration.ofHours(1), new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    });
+
+    @Test
+    void retiredKeyVerifiesUntilRetentionEnds() {
+        String oldKid = keyRing.active().kid();
+
+        keyRing.rotate("v2", Map.of("v2", SECOND));
+
+        assertEquals("v2", keyRing.active().kid());
+        assertNotNull(keyRing.find(oldKid));
+        assertNotNull(keyRing.find("v2"));
+
+        now = now.plus(Duration.ofMinutes(59));
+        keyRing.rotate("v2", Map.of("v2", SECOND));
+        assertNotNull(keyRing.find(oldKid));
+
+        now = now.plus(Duration.ofMinutes(2));
+        assertNull(keyRing.find(oldKid));
+        assertNull(keyRing.find("unknown"));
+    }
+
+    @Test
+    void verifyingKeysExcludeExpiredRetiredKeys() {
+        String oldKid = keyRing.active().kid();
+        keyRing.rotate("v2", Map.of("v2", SECOND));
+
+        assertEquals(Set.of(oldKid, "v2"), kids());
+
+        now = now.plus(Duration.ofMinutes(61));
+        assertEquals(Set.of("v2"), kids());
+    }
+
+    private Set<String> kids() {
+        return keyRing.verifyingKeys().stream().map(JwtKeyRing.SigningKey::kid).collect(Collectors.toSet());
+    }
+
+    @Test
+    void tokensSignedBeforeRotationStayValid() {
+        JwtService jwtService = new JwtService(FIRST, SECOND, 3600, 86400, 0, 1, 1, TokenFormat.STANDARD);
+        String before = jwtService.generateAccessToken("user@example.com");
+
+        jwtService.accessKeys().rotate("v2", Map.of("v2", SECOND));
+        String after = jwtService.generateAccessToken("user@example.com");
+
+        assertTrue(jwtService.isValidAccessToken(before, 0));
+        assertTrue(jwtService.isValidAccessToken(after, 0));
+        assertEquals("v2", jwtService.parseAccess(after).getHeader().getKeyId());
+        assertNotNull(jwtService.parseAccess(before));
+    }
+}
@@ -0,0 +1,105 @@
+package com.basic.project.service;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String ACCESS_SECRET = "test-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing!!";
+    private static final String REFRESH_SECRET = "test-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signing!";
+
+    private final JwtService jwtService = new JwtService(ACCESS_SECRET, REFRESH_SECRET, 3600, 86400, 0, 1, 1, TokenFormat.STANDARD);
+
+    @Test
+    void fastPathAcceptsValidAccessTokenAfterBearerPrefix() {
+        String token = jwtService.generateAccessToken("user@example.com");
+
+        assertTrue(jwtService.isValidAccessToken("Bearer " + token, 7));
+        assertTrue(jwtService.isValidAccessToken(token, 0));
+        assertTrue(jwtService.isValidAccessToken(token));
+    }
+
+    @Test
+    void fastPathRejectsWhatJjwtRejects() {
+        String access = jwtService.generateAccessToken("user@example.com");
+        String refresh = jwtService.generateRefreshToken("user@example.com");
+        String tampered = flipSignatureCharacter(access);
+        String expired = sign(ACCESS_SECRET, "access", Instant.now().minusSeconds(10));
+        String wrongType = sign(ACCESS_SECRET, "refresh", Instant.now().plusSeconds(60));
+        String unsigned = access.substring(0, access.lastIndexOf('.') + 1);
+
+        for (String token : new String[]{refresh, tampered, expired, wrongType, unsigned, "", "a.b.c", "not-a-token"}) {
+            assertFalse(jwtService.isValidAccessToken(token), token);
+            assertFalse(jwtService.isValidAccessToken("Bearer " + token, 7), token);
+        }
+    }
+
+    @Test
+    void fastPathRejectsNonCanonicalSignature() {
+        String access = jwtService.generateAccessToken("user@example.com");
+
+        assertTrue(jwtService.isValidAccessToken(access, 0));
+        assertFalse(jwtService.isValidAccessToken(setTrailingBit(access), 0));
+    }
+
+    @Test
+    void fastPathRejectsOtherAlgorithms() {
+        String hs256 = Jwts.builder()
+                .setSubject("user@example.com")
+                .addClaims(Map.of("type", "access"))
+                .setExpiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(Keys.hmacShaKeyFor(ACCESS_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertFalse(jwtService.isValidAccessToken(hs256, 0));
+    }
+
+    @Test
+    void secretsShorterThanHs512KeyAreRejected() {
+        String shortSecret = "secret-of-63-bytes-that-passed-the-old-32-character-check-only!";
+        assertEquals(63, shortSecret.length());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new JwtService(shortSecret, REFRESH_SECRET, 3600, 86400, 0, 1, 1, TokenFormat.STANDARD));
+        assertTrue(e.getMessage().contains("64 bytes"));
+        assertDoesNotThrow(() -> new JwtService(shortSecret + "!", REFRESH_SECRET, 3600, 86400, 0, 1, 1, TokenFormat.STANDARD));
+    }
+
+    /**
+     * Замена символа в середине подписи: меняет декодированные байты при любом исходном символе
+     */
+    private static String flipSignatureCharacter(String token) {
+        int index = (token.lastIndexOf('.') + 1 + token.length()) / 2;
+        char replacement = token.charAt(index) == 'A' ? 'B' : 'A';
+        return token.substring(0, index) + replacement + token.substring(index + 1);
+    }
+
+    /**
+     * Подпись HS512 (64 байта) занимает 86 символов, у последнего 4 лишних бита; младший бит
+     * дает неканоническую запись тех же байт
+     */
+    private static String setTrailingBit(String token) {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        int last = alphabet.indexOf(token.charAt(token.length() - 1));
+        return token.substring(0, token.length() - 1) + alphabet.charAt(last | 1);
+    }
+
+    private static String sign(String secret, String type, Instant expiresAt) {
+        return Jwts.builder()
+                .setSubject("user@example.com")
+                .addClaims(Map.of("type", type))
+                .setIssuedAt(Date.from(expiresAt.minusSeconds(3600)))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+    }
+}
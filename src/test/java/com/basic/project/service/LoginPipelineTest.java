@@ -0,0 +1,155 @@
+package com.basic.project.service;
+
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.exception.AuthException;
+import com.basic.project.repository.UserCredentials;
+import com.basic.project.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LoginPipelineTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final PasswordEncoder PASSWORD_ENCODER = new BCryptPasswordEncoder(4);
+    private static final String SECRET_HASH = PASSWORD_ENCODER.encode("secret");
+
+    private final JwtService jwtService = new JwtService(
+            "test-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing!!",
+            "test-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signing!",
+            3600, 86400, 0, 1, 1, TokenFormat.STANDARD);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LoginPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void loginRunsAllStagesAndRecordsTheirLatency() {
+        pipeline = pipeline(PASSWORD_ENCODER, 2, 8);
+        when(userRepository.findCredentialsByPrincipal(anyString(), anyString()))
+                .thenReturn(Optional.of(new UserCredentials(7L, EMAIL, SECRET_HASH, true)));
+
+        AuthDtos.TokenResponse response = pipeline.login(request("secret"));
+
+        assertEquals(7L, response.getId());
+        assertTrue(jwtService.isValidAccessToken(response.getAccessToken(), 0));
+        assertNotNull(jwtService.verifyRefreshToken(response.getRefreshToken()));
+        assertEquals(1, meterRegistry.get("auth.login.stage").tag("stage", "lookup").timer().count());
+        assertEquals(1, meterRegistry.get("auth.login.stage").tag("stage", "verify").timer().count());
+        assertEquals(2, meterRegistry.get("auth.login.stage").tag("stage", "sign").timer().count());
+    }
+
+    @Test
+    void wrongPasswordIsRejected() {
+        pipeline = pipeline(PASSWORD_ENCODER, 2, 8);
+        when(userRepository.findCredentialsByPrincipal(anyString(), anyString()))
+                .thenReturn(Optional.of(new UserCredentials(7L, EMAIL, SECRET_HASH, true)));
+
+        AuthException e = assertThrows(AuthException.class, () -> pipeline.login(request("wrong")));
+        assertEquals("INVALID_CREDENTIALS", e.getErrorCode());
+    }
+
+    @Test
+    void saturatedStageShedsInsteadOfQueueingUnbounded() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = mock(PasswordEncoder.class);
+        when(blockingEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        pipeline = pipeline(blockingEncoder, 1, 1);
+        when(userRepository.findCredentialsByPrincipal(anyString(), anyString()))
+                .thenReturn(Optional.of(new UserCredentials(7L, EMAIL, SECRET_HASH, true)));
+
+        CompletableFuture<AuthDtos.TokenResponse> running = pipeline.submit(request("secret"));
+        awaitActive("verify");
+        CompletableFuture<AuthDtos.TokenResponse> queued = pipeline.submit(request("secret"));
+        awaitQueued("verify");
+        CompletableFuture<AuthDtos.TokenResponse> shed = pipeline.submit(request("secret"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> shed.get(5, TimeUnit.SECONDS));
+        assertEquals("SERVICE_OVERLOADED", ((AuthException) e.getCause()).getErrorCode());
+        assertEquals(1, meterRegistry.get("auth.login.stage.rejected").tag("stage", "verify").counter().count());
+
+        release.countDown();
+        assertNotNull(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void timedOutLoginSkipsRemainingStages() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        pipeline = pipeline(passwordEncoder, 2, 8, 50);
+        when(userRepository.findCredentialsByPrincipal(anyString(), anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(new UserCredentials(7L, EMAIL, SECRET_HASH, true));
+        });
+
+        AuthException e = assertThrows(AuthException.class, () -> pipeline.login(request("secret")));
+        assertEquals("SERVICE_OVERLOADED", e.getErrorCode());
+        release.countDown();
+
+        awaitCancelled("verify");
+        verifyNoInteractions(passwordEncoder);
+        assertEquals(0, meterRegistry.get("auth.login.stage").tag("stage", "verify").timer().count());
+        assertEquals(0, meterRegistry.get("auth.login.stage").tag("stage", "sign").timer().count());
+    }
+
+    private LoginPipeline pipeline(PasswordEncoder passwordEncoder, int verifyThreads, int verifyQueue) {
+        return pipeline(passwordEncoder, verifyThreads, verifyQueue, 5000);
+    }
+
+    private LoginPipeline pipeline(PasswordEncoder passwordEncoder, int verifyThreads, int verifyQueue, long timeoutMillis) {
+        return new LoginPipeline(userRepository, jwtService, passwordEncoder, mock(AuthEventWriter.class), meterRegistry,
+                2, 8, verifyThreads, verifyQueue, 2, 8, timeoutMillis);
+    }
+
+    private void awaitActive(String stage) throws InterruptedException {
+        awaitGauge("auth.login.stage.active", stage);
+    }
+
+    private void awaitQueued(String stage) throws InterruptedException {
+        awaitGauge("auth.login.stage.queue.size", stage);
+    }
+
+    private void awaitCancelled(String stage) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.login.stage.cancelled").tag("stage", stage).counter().count() < 1
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitGauge(String name, String stage) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(name).tag("stage", stage).gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static AuthDtos.LoginRequest request(String password) {
+        AuthDtos.LoginRequest request = new AuthDtos.LoginRequest();
+        request.setPrincipal(EMAIL);
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -0,0 +1,153 @@
+package com.basic.project.service;
+
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.exception.AuthException;
+import com.basic.project.repository.UserCredentials;
+import com.basic.project.repository.UserRepository;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RefreshCoalescingTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final int BURST = 16;
+
+    private final JwtService jwtService = new JwtService(
+            "test-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing!!",
+            "test-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signing!",
+            3600, 86400, 0, 1, 1, TokenFormat.STANDARD);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RefreshCoalescer coalescer = new RefreshCoalescer(5000);
+    private final AuthService authService = new AuthService(userRepository, jwtService,
+            mock(PasswordEncoder.class), coalescer, null, mock(AuthEventWriter.class));
+    private final ExecutorService executor = Executors.newFixedThreadPool(BURST);
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentRefreshesShareOneLookupAndOnePair() throws Exception {
+        stubLookups(user(true), BURST - 1);
+        AuthDtos.RefreshRequest request = request(refreshTokenIssuedSecondsAgo(60));
+
+        List<Future<AuthDtos.TokenResponse>> responses = burst(request);
+
+        AuthDtos.TokenResponse first = responses.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<AuthDtos.TokenResponse> response : responses) {
+            assertSame(first, response.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, lookups.get());
+        verify(userRepository, times(1)).findCredentialsByEmail(Tenant.DEFAULT_ID, EMAIL);
+    }
+
+    @Test
+    void freshlyRotatedTokenStartsNewRefresh() throws Exception {
+        stubLookups(user(true), 0);
+
+        AuthDtos.TokenResponse shared = authService.refresh(request(refreshTokenIssuedSecondsAgo(60)));
+        AuthDtos.TokenResponse rotated = authService.refresh(request(shared.getRefreshToken()));
+
+        assertNotSame(shared, rotated);
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void failureIsSharedAndNotCached() throws Exception {
+        stubLookups(user(false), BURST - 1);
+        AuthDtos.RefreshRequest request = request(refreshTokenIssuedSecondsAgo(60));
+
+        List<Future<AuthDtos.TokenResponse>> responses = burst(request);
+
+        for (Future<AuthDtos.TokenResponse> response : responses) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+            assertEquals("USER_DISABLED", ((AuthException) e.getCause()).getErrorCode());
+        }
+        assertEquals(1, lookups.get());
+
+        stubLookups(user(false), 0);
+        assertThrows(AuthException.class, () -> authService.refresh(request));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void invalidRefreshTokenIsRejectedWithoutLookup() {
+        AuthDtos.RefreshRequest request = request(jwtService.generateAccessToken(EMAIL));
+
+        assertThrows(AuthException.class, () -> authService.refresh(request));
+        verifyNoInteractions(userRepository);
+    }
+
+    /**
+     * Поиск пользователя возвращает результат только после того, как followers запросов
+     * присоединились к текущему обновлению и ждут его результата
+     */
+    private void stubLookups(UserCredentials user, int followers) {
+        doAnswer(invocation -> {
+            lookups.incrementAndGet();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalescer.waiting(EMAIL) < followers) {
+                if (System.nanoTime() > deadline) {
+                    throw new AssertionError("Only " + coalescer.waiting(EMAIL) + " of " + followers + " requests joined");
+                }
+                Thread.yield();
+            }
+            return Optional.of(user);
+        }).when(userRepository).findCredentialsByEmail(anyString(), anyString());
+    }
+
+    private List<Future<AuthDtos.TokenResponse>> burst(AuthDtos.RefreshRequest request) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AuthDtos.TokenResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < BURST; i++) {
+            responses.add(executor.submit(() -> {
+                start.await();
+                return authService.refresh(request);
+            }));
+        }
+        start.countDown();
+        return responses;
+    }
+
+    private String refreshTokenIssuedSecondsAgo(long seconds) {
+        Instant issuedAt = Instant.now().minusSeconds(seconds);
+        JwtKeyRing.SigningKey key = jwtService.refreshKeys().active();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
+                .setSubject(EMAIL)
+                .addClaims(Map.of("type", "refresh"))
+                .setIssuedAt(Date.from(issuedAt))
+                .setExpiration(Date.from(issuedAt.plusSeconds(86400)))
+                .signWith(key.key(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    private static AuthDtos.RefreshRequest request(String refreshToken) {
+        AuthDtos.RefreshRequest request = new AuthDtos.RefreshRequest();
+        request.setRefreshToken(refreshToken);
+        return request;
+    }
+
+    private static UserCredentials user(boolean enabled) {
+        return new UserCredentials(1L, EMAIL, "{noop}secret", enabled);
+    }
+}
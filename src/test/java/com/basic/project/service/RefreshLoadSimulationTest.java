@@ -0,0 +1,62 @@
+package com.basic.project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Симуляция нагрузки на /refresh: все клиенты входят одновременно (деплой или массовый вход),
+ * затем каждый обновляет токен в рекомендованный сервером момент.
+ */
+class RefreshLoadSimulationTest {
+
+    private static final int CLIENTS = 10_000;
+    private static final long TTL = 3600;
+    private static final long HORIZON = 24 * 3600;
+    private static final int BUCKET = 60;
+
+    @Test
+    void jitteredRefreshFlattensLoadOverTime() {
+        int[] fixed = simulate(new TokenTtlPolicy(TTL, 0, 1, 1, new Random(42)));
+        int[] jittered = simulate(new TokenTtlPolicy(TTL, 0.1, 0.75, 0.9, new Random(42)));
+
+        // Без джиттера каждый час все клиенты приходят в одну минуту
+        assertEquals(CLIENTS, peak(fixed, 12));
+        // С джиттером через несколько циклов пик в минуту падает на порядок и продолжает снижаться
+        assertTrue(peak(jittered, 6) < CLIENTS / 10, "peak after 6h: " + peak(jittered, 6));
+        assertTrue(peak(jittered, 12) < CLIENTS / 20, "peak after 12h: " + peak(jittered, 12));
+        assertTrue(peak(jittered, 12) <= peak(jittered, 3));
+    }
+
+    /**
+     * Число обновлений в каждую минуту горизонта
+     */
+    private static int[] simulate(TokenTtlPolicy policy) {
+        int[] refreshesPerMinute = new int[(int) (HORIZON / BUCKET) + 1];
+        PriorityQueue<long[]> nextRefresh = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        for (int i = 0; i < CLIENTS; i++) {
+            nextRefresh.add(new long[]{policy.refreshAfter(policy.nextTtl())});
+        }
+        while (!nextRefresh.isEmpty() && nextRefresh.peek()[0] < HORIZON) {
+            long[] client = nextRefresh.poll();
+            refreshesPerMinute[(int) (client[0] / BUCKET)]++;
+            client[0] += policy.refreshAfter(policy.nextTtl());
+            nextRefresh.add(client);
+        }
+        return refreshesPerMinute;
+    }
+
+    /**
+     * Максимум обновлений в минуту, начиная с указанного часа
+     */
+    private static int peak(int[] refreshesPerMinute, int fromHour) {
+        int peak = 0;
+        for (int i = fromHour * 3600 / BUCKET; i < refreshesPerMinute.length; i++) {
+            peak = Math.max(peak, refreshesPerMinute[i]);
+        }
+        return peak;
+    }
+}
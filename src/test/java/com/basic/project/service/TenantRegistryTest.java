@@ -0,0 +1,220 @@
+package com.basic.project.service;
+
+import com.basic.project.exception.AuthException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantRegistryTest {
+
+    private static final String ACCESS_SECRET = "test-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing!!";
+    private static final String REFRESH_SECRET = "test-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signing!";
+    private static final Tenant.RateLimit LIMIT = new Tenant.RateLimit(5, 1);
+    private static final Tenant.Limits LIMITS = new Tenant.Limits(LIMIT, LIMIT, LIMIT);
+
+    private final JwtService jwtService = new JwtService(ACCESS_SECRET, REFRESH_SECRET, 3600, 86400, 0, 1, 1, TokenFormat.STANDARD);
+    private final TenantRegistry tenants = jwtService.tenants();
+
+    @Test
+    void tenantTokensCarryTenantAndValidate() {
+        tenants.replace(List.of(definition("shop", 1), definition("blog", 2)));
+        Tenant shop = tenants.resolve("shop");
+
+        String access = jwtService.generateAccessToken(shop, "user@example.com", 60);
+        String refresh = jwtService.generateRefreshToken(shop, "user@example.com");
+
+        assertTrue(jwtService.isValidAccessToken("Bearer " + access, 7));
+        assertEquals("shop", jwtService.parseAccess(access).getBody().get("tid", String.class));
+        assertEquals("shop", jwtService.verifyRefreshToken(refresh).tenant());
+        assertNull(jwtService.verifyRefreshToken(jwtService.generateRefreshToken("user@example.com")).tenant());
+        assertNotEquals(shop.accessKeys().active().kid(), tenants.resolve("blog").accessKeys().active().kid());
+    }
+
+    @Test
+    void unknownTenantIsRejectedAndDefaultIsImplicit() {
+        assertSame(tenants.defaultTenant(), tenants.resolve(null));
+        assertSame(tenants.defaultTenant(), tenants.resolve(Tenant.DEFAULT_ID));
+        AuthException e = assertThrows(AuthException.class, () -> tenants.resolve("missing"));
+        assertEquals("UNKNOWN_TENANT", e.getErrorCode());
+        assertEquals(HttpStatus.BAD_REQUEST, e.getHttpStatus());
+    }
+
+    @Test
+    void tenantClaimMustMatchSigningKey() {
+        tenants.replace(List.of(definition("shop", 1), definition("blog", 2)));
+        Tenant shop = tenants.resolve("shop");
+
+        // Ключ shop, но claim tid чужой или отсутствует
+        String forged = forge(shop, "blog");
+        String missing = forge(shop, null);
+        String valid = forge(shop, "shop");
+
+        assertTrue(jwtService.isValidAccessToken(valid, 0));
+        assertTrue(jwtService.isValidAccessToken(valid));
+        for (String token : new String[]{forged, missing}) {
+            assertFalse(jwtService.isValidAccessToken(token, 0), token);
+            assertFalse(jwtService.isValidAccessToken(token), token);
+        }
+    }
+
+    @Test
+    void removedTenantTokensStopValidating() {
+        tenants.replace(List.of(definition("shop", 1)));
+        String token = jwtService.generateAccessToken(tenants.resolve("shop"), "user@example.com", 60);
+        assertTrue(jwtService.isValidAccessToken(token, 0));
+
+        tenants.replace(List.of());
+
+        assertNull(tenants.find("shop"));
+        assertFalse(jwtService.isValidAccessToken(token, 0));
+        assertFalse(jwtService.isValidAccessToken(token));
+    }
+
+    @Test
+    void secretChangeRotatesAndKeepsIssuedTokens() {
+        tenants.replace(List.of(definition("shop", 1)));
+        Tenant before = tenants.resolve("shop");
+        String old = jwtService.generateAccessToken(before, "user@example.com", 60);
+        before.loginBucket().tryConsume(1);
+
+        tenants.replace(List.of(definition("shop", 2)));
+        Tenant after = tenants.resolve("shop");
+        String fresh = jwtService.generateAccessToken(after, "user@example.com", 60);
+
+        assertNotEquals(before.accessKeys().active().kid(), after.accessKeys().active().kid());
+        assertTrue(jwtService.isValidAccessToken(old, 0));
+        assertTrue(jwtService.isValidAccessToken(fresh, 0));
+        // Прежний снимок не изменился, лимиты те же - счетчики сохранены
+        assertNull(before.accessKeys().find(after.accessKeys().active().kid()));
+        assertSame(before.loginBucket(), after.loginBucket());
+
+        tenants.replace(List.of(new Tenant.Definition("shop", secret("access", 2) + "shop", secret("refresh", 2) + "shop",
+                new Tenant.Limits(new Tenant.RateLimit(50, 1), LIMIT, LIMIT))));
+        assertNotSame(after.loginBucket(), tenants.resolve("shop").loginBucket());
+    }
+
+    @Test
+    void invalidConfigurationKeepsPreviousSnapshot() {
+        tenants.replace(List.of(definition("shop", 1)));
+        Tenant shop = tenants.resolve("shop");
+
+        assertThrows(IllegalArgumentException.class, () -> tenants.replace(List.of(
+                definition("shop", 1), new Tenant.Definition("blog", secret("access", 1) + "shop", secret("refresh", 9), LIMITS))));
+        assertThrows(IllegalArgumentException.class, () -> tenants.replace(List.of(
+                new Tenant.Definition("blog", ACCESS_SECRET, secret("refresh", 9), LIMITS))));
+        assertThrows(IllegalArgumentException.class, () -> tenants.replace(List.of(definition("shop", 1), definition("shop", 2))));
+        assertThrows(IllegalArgumentException.class, () -> tenants.replace(List.of(definition(Tenant.DEFAULT_ID, 3))));
+        assertThrows(IllegalArgumentException.class, () -> tenants.replace(List.of(definition("bad id", 3))));
+        assertThrows(IllegalArgumentException.class, () -> tenants.replace(List.of(
+                new Tenant.Definition("blog", "short-secret-that-passes-the-32-char-check", secret("refresh", 9), LIMITS))));
+
+        assertEquals(1, tenants.size());
+        assertSame(shop, tenants.resolve("shop"));
+    }
+
+    @Test
+    void hundredsOfTenantsValidateWhileSnapshotIsReplaced() throws Exception {
+        int count = 500;
+        List<Tenant.Definition> definitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            definitions.add(definition("t" + i, i));
+        }
+        tenants.replace(definitions);
+        String[] tokens = new String[count];
+        for (int i = 0; i < count; i++) {
+            tokens[i] = jwtService.generateAccessToken(tenants.resolve("t" + i), "user" + i + "@example.com", 600);
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(executor.submit(() -> {
+                    int checked = 0;
+                    while (!stop.get()) {
+                        int i = ThreadLocalRandom.current().nextInt(count);
+                        if (!jwtService.isValidAccessToken(tokens[i], 0)) {
+                            throw new AssertionError("Token of tenant t" + i + " rejected during reload");
+                        }
+                        checked++;
+                    }
+                    return checked;
+                }));
+            }
+            // Перезагрузки с добавлением и удалением лишнего tenant'а
+            Future<?> writer = executor.submit(() -> {
+                List<Tenant.Definition> extended = new ArrayList<>(definitions);
+                extended.add(definition("extra", count));
+                for (int i = 0; i < 50; i++) {
+                    tenants.replace(i % 2 == 0 ? extended : definitions);
+                }
+            });
+            writer.get(30, TimeUnit.SECONDS);
+            stop.set(true);
+            for (Future<Integer> reader : readers) {
+                assertTrue(reader.get(10, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            stop.set(true);
+            executor.shutdownNow();
+        }
+        assertEquals(count, tenants.size());
+    }
+
+    @Test
+    void fileDefinitionsFallBackToDefaultLimits() {
+        TenantFileLoader loader = new TenantFileLoader(jwtService, "", 5, 1, 3, 60, 10, 1);
+        Properties properties = new Properties();
+        properties.setProperty("shop.access-secret", secret("access", 1));
+        properties.setProperty("shop.refresh-secret", secret("refresh", 1));
+        properties.setProperty("shop.login.requests", "20");
+
+        List<Tenant.Definition> definitions = loader.parse(properties);
+
+        assertEquals(1, definitions.size());
+        assertEquals(new Tenant.Limits(new Tenant.RateLimit(20, 1), new Tenant.RateLimit(3, 60),
+                new Tenant.RateLimit(10, 1)), definitions.get(0).limits());
+
+        properties.remove("shop.refresh-secret");
+        assertThrows(IllegalArgumentException.class, () -> loader.parse(properties));
+    }
+
+    private static Tenant.Definition definition(String id, int version) {
+        return new Tenant.Definition(id, secret("access", version) + id, secret("refresh", version) + id, LIMITS);
+    }
+
+    private static String secret(String type, int version) {
+        return "tenant-" + type + "-secret-v" + version + "-that-is-long-enough-for-hs512-signing-keys!!";
+    }
+
+    private static String forge(Tenant tenant, String tid) {
+        JwtKeyRing.SigningKey key = tenant.accessKeys().active();
+        Instant now = Instant.now();
+        var builder = Jwts.builder()
+                .setHeaderParam("kid", key.kid())
+                .setSubject("user@example.com")
+                .claim("type", "access")
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plusSeconds(60)));
+        if (tid != null) {
+            builder.claim("tid", tid);
+        }
+        return builder.signWith(key.key(), SignatureAlgorithm.HS512).compact();
+    }
+}
@@ -0,0 +1,99 @@
+package com.basic.project.service;
+
+import com.basic.project.dto.AuthDtos;
+import com.basic.project.repository.UserCredentials;
+import com.basic.project.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TokenFormatTest {
+
+    private static final String ACCESS_SECRET = "test-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing!!";
+    private static final String REFRESH_SECRET = "test-refresh-secret-that-is-at-least-64-bytes-long-for-hs512-signing!";
+    private static final String EMAIL = "some.rather.long.address@example.com";
+
+    private final JwtService standard = service(TokenFormat.STANDARD);
+    private final JwtService compact = service(TokenFormat.COMPACT);
+
+    @Test
+    void compactTokenIsSmaller() {
+        String standardToken = standard.generateAccessToken(standard.subjectFor(42L, EMAIL));
+        String compactToken = compact.generateAccessToken(compact.subjectFor(42L, EMAIL));
+
+        assertTrue(compactToken.length() < standardToken.length() * 0.7,
+                compactToken.length() + " vs " + standardToken.length());
+    }
+
+    @Test
+    void bothFormatsAreVerifiedDuringMigration() {
+        String standardToken = standard.generateAccessToken(EMAIL);
+        String compactToken = compact.generateAccessToken("42");
+
+        for (JwtService service : new JwtService[]{standard, compact}) {
+            assertTrue(service.isValidAccessToken("Bearer " + standardToken, 7));
+            assertTrue(service.isValidAccessToken("Bearer " + compactToken, 7));
+            assertTrue(service.isValidAccessToken(compactToken));
+        }
+
+        Jws<Claims> claims = standard.parseAccess(compactToken);
+        assertEquals("HS256", claims.getHeader().getAlgorithm());
+        assertEquals("42", claims.getBody().getSubject());
+    }
+
+    @Test
+    void compactTokensAreNotSignedWithTheHs512Key() {
+        String compactToken = compact.generateAccessToken("42");
+        JwtKeyRing.SigningKey key = compact.accessKeys().active();
+
+        assertFalse(Arrays.equals(key.key().getEncoded(), key.compactKey().getEncoded()));
+        assertThrows(JwtException.class,
+                () -> Jwts.parserBuilder().setSigningKey(key.key()).build().parseClaimsJws(compactToken));
+        assertEquals("42", Jwts.parserBuilder().setSigningKey(key.compactKey()).build()
+                .parseClaimsJws(compactToken).getBody().getSubject());
+    }
+
+    @Test
+    void compactTypeIsChecked() {
+        String refresh = compact.generateRefreshToken("42");
+
+        assertFalse(compact.isValidAccessToken(refresh, 0));
+        assertFalse(compact.isValidAccessToken(refresh));
+
+        VerifiedToken verified = compact.verifyRefreshToken(refresh);
+        assertNotNull(verified);
+        assertEquals(42L, verified.userId());
+        assertNull(standard.verifyRefreshToken(standard.generateRefreshToken(EMAIL)).userId());
+    }
+
+    @Test
+    void compactRefreshLooksUpUserById() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findCredentialsById(42L))
+                .thenReturn(Optional.of(new UserCredentials(42L, EMAIL, "password", true)));
+        AuthService authService = new AuthService(userRepository, compact,
+                mock(PasswordEncoder.class), new RefreshCoalescer(0), null, mock(AuthEventWriter.class));
+
+        AuthDtos.RefreshRequest request = new AuthDtos.RefreshRequest();
+        request.setRefreshToken(compact.generateRefreshToken("42"));
+        AuthDtos.TokenResponse response = authService.refresh(request);
+
+        assertEquals(42L, response.getId());
+        assertEquals(42L, compact.verifyRefreshToken(response.getRefreshToken()).userId());
+        verify(userRepository, never()).findCredentialsByEmail(anyString(), anyString());
+    }
+
+    private static JwtService service(TokenFormat format) {
+        return new JwtService(ACCESS_SECRET, REFRESH_SECRET, 3600, 86400, 0, 1, 1, format);
+    }
+}
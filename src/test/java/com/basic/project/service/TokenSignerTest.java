@@ -0,0 +1,88 @@
+package com.basic.project.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenSignerTest {
+
+    private static final String SECRET = "test-access-secret-that-is-at-least-64-bytes-long-for-hs512-signing!!";
+
+    private final JwtKeyRing ring = new JwtKeyRing("Access", SECRET, Duration.ofHours(1));
+
+    @Test
+    void signedTokenIsReadableByJjwt() {
+        String subject = "user\"\\\n@example.com";
+        long now = Instant.now().getEpochSecond();
+        String token = TokenSigner.sign(ring.active(), subject, "access", now, now + 60);
+
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+
+        assertEquals(subject, claims.getSubject());
+        assertEquals("access", claims.get("type"));
+        assertEquals(now, claims.getIssuedAt().toInstant().getEpochSecond());
+        assertEquals(now + 60, claims.getExpiration().toInstant().getEpochSecond());
+
+        VerifiedToken verified = new TokenVerifier(ring, "access").verify(token, 0, true);
+        assertNotNull(verified);
+        assertEquals(subject, verified.subject());
+    }
+
+    @Test
+    void engineSignatureMatchesJjwt() {
+        String token = Jwts.builder()
+                .setSubject("user@example.com")
+                .addClaims(Map.of("type", "access"))
+                .setExpiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(ring.active().key(), SignatureAlgorithm.HS512)
+                .compact();
+        int signatureStart = token.lastIndexOf('.');
+
+        byte[] signature = ring.active().engine()
+                .sign(token.substring(0, signatureStart).getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals(token.substring(signatureStart + 1), Base64.getUrlEncoder().withoutPadding().encodeToString(signature));
+        assertEquals(64, ring.active().engine().length());
+    }
+
+    @Test
+    void engineIsSafeAcrossThreads() throws Exception {
+        byte[] input = "header.payload".getBytes(StandardCharsets.US_ASCII);
+        byte[] expected = ring.active().engine().sign(input);
+
+        Thread[] threads = new Thread[8];
+        boolean[] matches = new boolean[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> {
+                boolean ok = true;
+                for (int n = 0; n < 1000; n++) {
+                    ok &= java.util.Arrays.equals(expected, ring.active().engine().sign(input));
+                }
+                matches[index] = ok;
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (boolean match : matches) {
+            assertTrue(match);
+        }
+    }
+}